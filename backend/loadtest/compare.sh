@@ -0,0 +1,28 @@
+#!/bin/bash
+# Runs the k6 scenario against the backend in platform-thread mode, then in virtual-thread mode
+# (Java 21+ required for the latter), and leaves both summaries in target/k6-*.json.
+#
+#   loadtest/compare.sh [rate] [duration]
+#
+# To reproduce a slow database, put latency between the app and MySQL first, for example with
+# toxiproxy or `tc qdisc add dev lo root netem delay 20ms`.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RATE=${1:-200}
+DURATION=${2:-2m}
+mvn -B -q -DskipTests package
+JAR=$(ls target/*.jar | grep -v original | head -1)
+mkdir -p target
+
+run_mode() {
+    local mode=$1 virtual=$2
+    java -jar "$JAR" --spring.threads.virtual.enabled="$virtual" > "target/app-$mode.log" 2>&1 &
+    local pid=$!
+    until curl -sf http://localhost:8080/api/tickets/stats > /dev/null; do sleep 1; done
+    k6 run -q -e MODE="$mode" -e RATE="$RATE" -e DURATION="$DURATION" loadtest/tickets.js || true
+    kill "$pid" && wait "$pid" || true
+}
+
+run_mode platform false
+run_mode virtual true
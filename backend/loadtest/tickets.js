@@ -0,0 +1,95 @@
+// k6 load test for the ticket read/write paths.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e RATE=300 -e MODE=platform loadtest/tickets.js
+//
+// Run it once per threading mode (see loadtest/compare.sh) and compare the summaries.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const RATE = parseInt(__ENV.RATE || '200');
+const DURATION = __ENV.DURATION || '2m';
+
+export const options = {
+    scenarios: {
+        // Open model: requests keep arriving at RATE/s however slow the server gets,
+        // which is what exposes thread-pool exhaustion
+        reads: {
+            executor: 'constant-arrival-rate',
+            rate: Math.ceil(RATE * 0.9),
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: 200,
+            maxVUs: 2000,
+            exec: 'reads',
+        },
+        writes: {
+            executor: 'constant-arrival-rate',
+            rate: Math.max(1, Math.floor(RATE * 0.1)),
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: 20,
+            maxVUs: 500,
+            exec: 'writes',
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+        'http_req_duration{kind:list}': ['p(99)<1000'],
+        'http_req_duration{kind:get}': ['p(99)<500'],
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    const owner = http.post(`${BASE_URL}/api/users`, JSON.stringify({
+        fullName: 'Load Test Owner',
+        email: `loadtest-${Date.now()}@example.com`,
+        password: 'loadtest123',
+    }), { headers: { 'Content-Type': 'application/json' } });
+    const ownerId = owner.json('id');
+    
+    const tickets = [];
+    for (let i = 0; i < 50; i++) {
+        tickets.push({ subject: `Load test ticket ${i}`, description: 'Created by the k6 load test setup.', priority: 'MEDIUM' });
+    }
+    const bulk = http.post(`${BASE_URL}/api/tickets/bulk`,
+        JSON.stringify(tickets.map(t => Object.assign({ ownerId }, t))),
+        { headers: { 'Content-Type': 'application/json' } });
+    const ticketIds = bulk.json('results').filter(r => r.id).map(r => r.id);
+    return { ownerId, ticketIds };
+}
+
+export function reads(data) {
+    const roll = Math.random();
+    let res;
+    if (roll < 0.5) {
+        res = http.get(`${BASE_URL}/api/tickets?page=0&size=20`, { tags: { kind: 'list' } });
+    } else if (roll < 0.8) {
+        const id = data.ticketIds[Math.floor(Math.random() * data.ticketIds.length)];
+        res = http.get(`${BASE_URL}/api/tickets/${id}`, { tags: { kind: 'get' } });
+    } else {
+        res = http.get(`${BASE_URL}/api/tickets/stream?limit=20`, { tags: { kind: 'list' } });
+    }
+    check(res, { 'status is 200': r => r.status === 200 });
+}
+
+export function writes(data) {
+    const res = http.post(`${BASE_URL}/api/tickets?ownerId=${data.ownerId}`, JSON.stringify({
+        subject: 'Load test write',
+        description: 'Created by the k6 load test writes scenario.',
+        priority: 'LOW',
+    }), { headers: { 'Content-Type': 'application/json' }, tags: { kind: 'create' } });
+    check(res, { 'status is 201': r => r.status === 201 });
+}
+
+export function handleSummary(data) {
+    const mode = __ENV.MODE || 'unknown';
+    return {
+        [`target/k6-${mode}.json`]: JSON.stringify(data, null, 2),
+        stdout: `\n[${mode}] ` + ['list', 'get'].map(kind => {
+            const trend = data.metrics[`http_req_duration{kind:${kind}}`];
+            return trend ? `${kind} p50=${trend.values['p(50)'].toFixed(1)}ms p99=${trend.values['p(99)'].toFixed(1)}ms` : '';
+        }).join('  ') + `  failed=${(data.metrics.http_req_failed.values.rate * 100).toFixed(2)}%\n`,
+    };
+}
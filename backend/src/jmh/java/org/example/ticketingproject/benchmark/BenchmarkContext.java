@@ -0,0 +1,98 @@
+package org.example.ticketingproject.benchmark;
+
+import org.example.ticketingproject.TicketingProjectApplication;
+import org.example.ticketingproject.service.TicketCodeGenerator;
+import org.example.ticketingproject.service.TicketService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Boots the application without a web server against a private in-memory H2 database (MySQL
+ * mode) and seeds it with a synthetic dataset through JDBC batch inserts.
+ */
+final class BenchmarkContext {
+    
+    private static final String[] STATUSES = {"OPEN", "IN_PROGRESS", "RESOLVED", "CLOSED"};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH", "URGENT"};
+    private static final int BATCH_SIZE = 1000;
+    
+    private BenchmarkContext() {
+    }
+    
+    static ConfigurableApplicationContext start(String databaseName) {
+        return new SpringApplicationBuilder(TicketingProjectApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--ticketing.search.index-dir=",
+                "--logging.level.root=WARN");
+    }
+    
+    /**
+     * Inserts {@code users} users, {@code tickets} tickets spread over the last year and
+     * {@code commentsPerTicket} comments per ticket, then rebuilds the search index.
+     */
+    static void seed(ConfigurableApplicationContext context, int users, int tickets, int commentsPerTicket) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        TicketCodeGenerator codes = context.getBean(TicketCodeGenerator.class);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        OffsetDateTime now = Instant.now().atOffset(ZoneOffset.UTC);
+        Long userRoleId = jdbc.queryForObject("SELECT id FROM roles WHERE name = 'USER'", Long.class);
+        Long firstUserId = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM users", Long.class);
+        
+        List<Object[]> userRows = new ArrayList<>();
+        List<Object[]> roleRows = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            userRows.add(new Object[]{"Bench User " + i, "bench" + i + "@example.com", "{noop}bench", true, now, now});
+            roleRows.add(new Object[]{firstUserId + i, userRoleId});
+        }
+        batch(jdbc, "INSERT INTO users (full_name, email, password_hash, active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)", userRows);
+        batch(jdbc, "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)", roleRows);
+        
+        String description = "Synthetic benchmark ticket describing a printer, network or login problem. ".repeat(12);
+        List<Object[]> ticketRows = new ArrayList<>();
+        for (int i = 0; i < tickets; i++) {
+            OffsetDateTime createdAt = now.minus(random.nextLong(365L * 24 * 3600), ChronoUnit.SECONDS);
+            Long assigneeId = random.nextInt(3) == 0 ? null : firstUserId + random.nextInt(users);
+            ticketRows.add(new Object[]{codes.nextCode(), "Benchmark ticket " + i, description,
+                STATUSES[random.nextInt(STATUSES.length)], PRIORITIES[random.nextInt(PRIORITIES.length)],
+                firstUserId + random.nextInt(users), assigneeId, createdAt, createdAt});
+        }
+        batch(jdbc, "INSERT INTO tickets (code, subject, description, status, priority, owner_id, assignee_id, " +
+            "created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)", ticketRows);
+        
+        Long firstTicketId = jdbc.queryForObject("SELECT MIN(id) FROM tickets", Long.class);
+        List<Object[]> commentRows = new ArrayList<>();
+        for (int i = 0; i < tickets; i++) {
+            for (int c = 0; c < commentsPerTicket; c++) {
+                commentRows.add(new Object[]{firstTicketId + i, firstUserId + random.nextInt(users),
+                    "Benchmark comment " + c + " on ticket " + i, now, now});
+            }
+        }
+        batch(jdbc, "INSERT INTO comments (ticket_id, author_id, body, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, 0)", commentRows);
+        
+        context.getBean(TicketService.class).rebuildSearchIndex();
+    }
+    
+    private static void batch(JdbcTemplate jdbc, String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbc.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+    }
+}
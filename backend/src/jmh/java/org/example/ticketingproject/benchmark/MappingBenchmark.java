@@ -0,0 +1,113 @@
+package org.example.ticketingproject.benchmark;
+
+import org.example.ticketingproject.dto.CommentDto;
+import org.example.ticketingproject.dto.TicketDto;
+import org.example.ticketingproject.dto.UserDto;
+import org.example.ticketingproject.entity.Comment;
+import org.example.ticketingproject.entity.Ticket;
+import org.example.ticketingproject.entity.User;
+import org.example.ticketingproject.repository.CommentRepository;
+import org.example.ticketingproject.repository.TicketRepository;
+import org.example.ticketingproject.repository.UserRepository;
+import org.example.ticketingproject.service.CommentService;
+import org.example.ticketingproject.service.TicketService;
+import org.example.ticketingproject.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO conversion in the three services, measured on detached entities with a warm
+ * user cache. The converters are private, so they are reached through private method handles on
+ * the unproxied service instances.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+    
+    private ConfigurableApplicationContext context;
+    private Object ticketService;
+    private Object commentService;
+    private Object userService;
+    private MethodHandle ticketToDto;
+    private MethodHandle commentToDto;
+    private MethodHandle userToDto;
+    private Ticket ticket;
+    private Comment comment;
+    private User user;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        context = BenchmarkContext.start("mapping");
+        BenchmarkContext.seed(context, 50, 200, 2);
+        
+        ticketService = AopProxyUtils.getSingletonTarget(context.getBean(TicketService.class));
+        commentService = AopProxyUtils.getSingletonTarget(context.getBean(CommentService.class));
+        userService = AopProxyUtils.getSingletonTarget(context.getBean(UserService.class));
+        ticketToDto = converter(TicketService.class, TicketDto.class, Ticket.class);
+        commentToDto = converter(CommentService.class, CommentDto.class, Comment.class);
+        userToDto = converter(UserService.class, UserDto.class, User.class);
+        
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transaction.setReadOnly(true);
+        ticket = transaction.execute(status -> context.getBean(TicketRepository.class)
+            .findAll(PageRequest.of(0, 1)).getContent().get(0));
+        comment = transaction.execute(status -> context.getBean(CommentRepository.class)
+            .findAll(PageRequest.of(0, 1)).getContent().get(0));
+        user = transaction.execute(status -> context.getBean(UserRepository.class)
+            .findAll(PageRequest.of(0, 1)).getContent().get(0));
+        
+        // Warm the user cache so the benchmarks measure mapping, not the first load
+        ticketToDto();
+        commentToDto();
+        userToDto();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public TicketDto ticketToDto() throws Throwable {
+        return (TicketDto) ticketToDto.invoke(ticketService, ticket);
+    }
+    
+    @Benchmark
+    public CommentDto commentToDto() throws Throwable {
+        return (CommentDto) commentToDto.invoke(commentService, comment);
+    }
+    
+    @Benchmark
+    public UserDto userToDto() throws Throwable {
+        return (UserDto) userToDto.invoke(userService, user);
+    }
+    
+    private static MethodHandle converter(Class<?> service, Class<?> dto, Class<?> entity) throws ReflectiveOperationException {
+        return MethodHandles.privateLookupIn(service, MethodHandles.lookup())
+            .findVirtual(service, "convertToDto", MethodType.methodType(dto, entity));
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.ticketingproject.benchmark;
+
+import org.example.ticketingproject.dto.CommentDto;
+import org.example.ticketingproject.dto.CursorPageDto;
+import org.example.ticketingproject.dto.TicketDto;
+import org.example.ticketingproject.service.CommentService;
+import org.example.ticketingproject.service.KeysetCursor;
+import org.example.ticketingproject.service.TicketService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository and service read paths against a seeded H2 database. Size the dataset with
+ * {@code -p tickets=100000 -p users=5000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadPathBenchmark {
+    
+    @Param({"10000"})
+    public int tickets;
+    
+    @Param({"500"})
+    public int users;
+    
+    @Param({"20"})
+    public int pageSize;
+    
+    private ConfigurableApplicationContext context;
+    private TicketService ticketService;
+    private CommentService commentService;
+    private Long sampleTicketId;
+    private int deepPage;
+    private String deepCursor;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("read_path");
+        BenchmarkContext.seed(context, users, tickets, 5);
+        ticketService = context.getBean(TicketService.class);
+        commentService = context.getBean(CommentService.class);
+        
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        sampleTicketId = jdbc.queryForObject("SELECT MAX(id) FROM tickets", Long.class);
+        deepPage = tickets / pageSize - 1;
+        // Position the cursor where the deep OFFSET page starts so both benchmarks read the same rows
+        List<Object[]> row = jdbc.query("SELECT created_at, id FROM tickets ORDER BY created_at DESC, id DESC LIMIT 1 OFFSET ?",
+            (rs, i) -> new Object[]{rs.getObject(1, java.time.OffsetDateTime.class).toInstant(), rs.getLong(2)},
+            deepPage * pageSize - 1);
+        deepCursor = KeysetCursor.encode((Instant) row.get(0)[0], (Long) row.get(0)[1]);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public Page<TicketDto> firstOffsetPage() {
+        return ticketService.getAllTickets(PageRequest.of(0, pageSize, Sort.by("createdAt").descending()));
+    }
+    
+    @Benchmark
+    public Page<TicketDto> deepOffsetPage() {
+        return ticketService.getAllTickets(PageRequest.of(deepPage, pageSize, Sort.by("createdAt").descending()));
+    }
+    
+    @Benchmark
+    public CursorPageDto<TicketDto> deepKeysetSlice() {
+        return ticketService.getTicketsAfter(deepCursor, pageSize);
+    }
+    
+    @Benchmark
+    public TicketDto ticketById() {
+        return ticketService.getTicketById(sampleTicketId);
+    }
+    
+    @Benchmark
+    public Page<CommentDto> commentsByTicket() {
+        return commentService.getCommentsByTicketId(sampleTicketId,
+            PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "createdAt", "id")));
+    }
+    
+    @Benchmark
+    public Page<TicketDto> search() {
+        return ticketService.searchTickets("printer", PageRequest.of(0, pageSize));
+    }
+}
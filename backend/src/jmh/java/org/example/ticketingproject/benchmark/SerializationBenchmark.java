@@ -0,0 +1,86 @@
+package org.example.ticketingproject.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.ticketingproject.dto.TicketDto;
+import org.example.ticketingproject.dto.UserDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON encoding of a list page as the controllers return it, using an ObjectMapper configured
+ * the way Spring Boot configures the one behind the MVC message converters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    
+    @Param({"10", "100"})
+    public int pageSize;
+    
+    @Param({"true", "false"})
+    public boolean withDescription;
+    
+    private ObjectMapper objectMapper;
+    private Page<TicketDto> page;
+    
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<TicketDto> content = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            TicketDto ticket = new TicketDto();
+            ticket.setId((long) i);
+            ticket.setCode("TKT" + (100000000 + i));
+            ticket.setSubject("Benchmark ticket " + i);
+            ticket.setDescription(withDescription ? "Synthetic description text. ".repeat(40) : null);
+            ticket.setStatus("OPEN");
+            ticket.setPriority("HIGH");
+            ticket.setOwner(user(i % 5));
+            ticket.setAssignee(user(5 + i % 3));
+            ticket.setCreatedAt(Instant.now());
+            ticket.setUpdatedAt(Instant.now());
+            content.add(ticket);
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize, Sort.by("createdAt").descending()), 100_000);
+    }
+    
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+    
+    private static UserDto user(long id) {
+        UserDto user = new UserDto();
+        user.setId(id);
+        user.setFullName("Bench User " + id);
+        user.setEmail("bench" + id + "@example.com");
+        user.setActive(true);
+        user.setRoleNames(Set.of("AGENT"));
+        return user;
+    }
+}
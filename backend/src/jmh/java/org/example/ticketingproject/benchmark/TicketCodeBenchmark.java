@@ -0,0 +1,39 @@
+package org.example.ticketingproject.benchmark;
+
+import org.example.ticketingproject.service.SnowflakeTicketCodeGenerator;
+import org.example.ticketingproject.service.TicketCodeGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TicketCodeBenchmark {
+    
+    private final TicketCodeGenerator generator = new SnowflakeTicketCodeGenerator(1);
+    
+    @Benchmark
+    @Threads(1)
+    public String nextCode() {
+        return generator.nextCode();
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public String nextCodeContended() {
+        return generator.nextCode();
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.ticketingproject.config;
+
+import org.example.ticketingproject.service.UserCacheService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    
+    @Bean
+    public CacheManager cacheManager(@Value("${ticketing.cache.spec:maximumSize=50000,expireAfterWrite=10m,recordStats}") String spec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheSpecification(spec);
+        // Fixed cache names so caches exist (and can be reported on) before their first use
+        cacheManager.setCacheNames(List.of(UserCacheService.USERS, UserCacheService.USER_ROLES, UserCacheService.ROLES));
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+}
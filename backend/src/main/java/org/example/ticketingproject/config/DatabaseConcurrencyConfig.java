@@ -0,0 +1,43 @@
+package org.example.ticketingproject.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Active only in virtual-thread mode ({@code spring.threads.virtual.enabled=true} on Java 21+),
+ * where Tomcat no longer bounds request concurrency and every request could otherwise reach the
+ * connection pool at once.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class DatabaseConcurrencyConfig {
+    
+    private static final Logger log = LoggerFactory.getLogger(DatabaseConcurrencyConfig.class);
+    
+    @Bean
+    public static BeanPostProcessor databaseConcurrencyLimiter(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+                // Defaults to the Hikari pool size so waiting happens on the semaphore, not in the pool
+                int limit = environment.getProperty("ticketing.db.max-concurrency", Integer.class,
+                    environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+                long timeout = environment.getProperty("ticketing.db.acquire-timeout-ms", Long.class,
+                    environment.getProperty("spring.datasource.hikari.connection-timeout", Long.class, 30000L));
+                log.info("Virtual threads enabled: limiting DataSource '{}' to {} concurrent connections", beanName, limit);
+                return new ConcurrencyLimitedDataSource(dataSource, limit, timeout);
+            }
+        };
+    }
+}
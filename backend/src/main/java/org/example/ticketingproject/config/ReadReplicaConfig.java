@@ -0,0 +1,83 @@
+package org.example.ticketingproject.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Active when {@code ticketing.replicas.urls} lists one or more replica JDBC urls. Replaces the
+ * auto-configured pool with a primary pool plus one pool per replica, and routes
+ * {@code @Transactional(readOnly = true)} work to the replicas.
+ */
+@Configuration
+@ConditionalOnProperty("ticketing.replicas.urls")
+public class ReadReplicaConfig {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaConfig.class);
+    
+    @Bean(destroyMethod = "close")
+    public ReplicaSet replicaSet(DataSourceProperties properties, Environment environment,
+                                 @Value("${ticketing.replicas.urls}") List<String> urls,
+                                 @Value("${ticketing.replicas.username:${spring.datasource.username:}}") String username,
+                                 @Value("${ticketing.replicas.password:${spring.datasource.password:}}") String password,
+                                 @Value("${ticketing.replicas.pool-size:0}") int poolSize,
+                                 @Value("${ticketing.replicas.max-lag-seconds:5}") long maxLagSeconds) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        bindPoolSettings(primary, environment);
+        primary.setPoolName("primary");
+        
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(urls.get(i).trim())
+                .username(username)
+                .password(password)
+                .build();
+            bindPoolSettings(replica, environment);
+            replica.setPoolName("replica-" + i);
+            replica.setReadOnly(true);
+            if (poolSize > 0) {
+                replica.setMaximumPoolSize(poolSize);
+            }
+            replicas.add(replica);
+        }
+        log.info("Routing read-only transactions to {} replica(s), max lag {}s", replicas.size(), maxLagSeconds);
+        return new ReplicaSet(primary, replicas, maxLagSeconds);
+    }
+    
+    @Bean
+    public DataSource dataSource(ReplicaSet replicaSet) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(replicaSet));
+    }
+    
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${ticketing.replicas.sticky-ms:5000}") long stickyMillis) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+            new FilterRegistrationBean<>(new ReadYourWritesFilter(stickyMillis));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+    
+    private void bindPoolSettings(HikariDataSource dataSource, Environment environment) {
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.ticketingproject.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.ticketingproject.service.ReadRouting;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Keeps a client on the primary for {@code ticketing.replicas.sticky-ms} after it sends a write,
+ * so it reads its own changes even while the replicas catch up. The writing request itself is
+ * pinned as well. The deadline is returned both as a cookie, for same-origin clients, and in the
+ * {@value #HEADER_NAME} header, which cross-origin clients echo back since their cookies are not sent.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    
+    public static final String COOKIE_NAME = "ticketing-primary-until";
+    
+    public static final String HEADER_NAME = "X-Primary-Until";
+    
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+    
+    private final long stickyMillis;
+    
+    public ReadYourWritesFilter(long stickyMillis) {
+        this.stickyMillis = stickyMillis;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (write) {
+            String deadline = Long.toString(now + stickyMillis);
+            Cookie cookie = new Cookie(COOKIE_NAME, deadline);
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (stickyMillis + 999) / 1000));
+            response.addCookie(cookie);
+            response.setHeader(HEADER_NAME, deadline);
+        } else if (Math.max(cookieDeadline(request), headerDeadline(request)) <= now) {
+            chain.doFilter(request, response);
+            return;
+        }
+        boolean previous = ReadRouting.requirePrimary();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadRouting.restore(previous);
+        }
+    }
+    
+    private long cookieDeadline(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return parseDeadline(cookie.getValue());
+            }
+        }
+        return 0;
+    }
+    
+    private long headerDeadline(HttpServletRequest request) {
+        String value = request.getHeader(HEADER_NAME);
+        return value != null ? parseDeadline(value) : 0;
+    }
+    
+    private long parseDeadline(String value) {
+        try {
+            // Capped so a forged value cannot pin a client to the primary for longer than one write would
+            return Math.min(Long.parseLong(value.trim()), System.currentTimeMillis() + stickyMillis);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
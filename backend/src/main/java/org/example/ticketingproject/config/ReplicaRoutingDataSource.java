@@ -0,0 +1,41 @@
+package org.example.ticketingproject.config;
+
+import org.example.ticketingproject.service.ReadRouting;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary. Must sit behind
+ * a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction
+ * manager opens its connection before the read-only flag is bound to the thread, so the choice
+ * has to wait until the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+    
+    private final ReplicaSet replicaSet;
+    
+    public ReplicaRoutingDataSource(ReplicaSet replicaSet) {
+        this.replicaSet = replicaSet;
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        return target().getConnection();
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return target().getConnection(username, password);
+    }
+    
+    private DataSource target() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !ReadRouting.isPrimaryRequired()) {
+            return replicaSet.selectForRead();
+        }
+        return replicaSet.getPrimary();
+    }
+}
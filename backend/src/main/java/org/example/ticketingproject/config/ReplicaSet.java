@@ -0,0 +1,117 @@
+package org.example.ticketingproject.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * The primary pool and the read replica pools. Replica lag is polled every
+ * {@code ticketing.replicas.check-interval-ms}; a replica only receives reads while replication
+ * is running and it is at most {@code ticketing.replicas.max-lag-seconds} behind. Until the first
+ * check, and whenever no replica qualifies, reads go to the primary.
+ */
+public class ReplicaSet implements AutoCloseable {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReplicaSet.class);
+    
+    private static final int LAG_QUERY_TIMEOUT_SECONDS = 2;
+    
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    
+    public ReplicaSet(HikariDataSource primary, List<HikariDataSource> replicas, long maxLagSeconds) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).collect(Collectors.toList());
+        this.maxLagSeconds = maxLagSeconds;
+    }
+    
+    public DataSource getPrimary() {
+        return primary;
+    }
+    
+    /** Round-robin over the replicas that are currently within the lag limit, else the primary. */
+    public DataSource selectForRead() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.available) {
+                return replica.dataSource;
+            }
+        }
+        return primary;
+    }
+    
+    @Scheduled(fixedDelayString = "${ticketing.replicas.check-interval-ms:1000}")
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            Long lag;
+            try {
+                lag = readLagSeconds(replica.dataSource);
+            } catch (SQLException | RuntimeException e) {
+                log.debug("Lag check failed for {}", replica.dataSource.getPoolName(), e);
+                lag = null;
+            }
+            boolean available = lag != null && lag <= maxLagSeconds;
+            if (available != replica.available) {
+                if (available) {
+                    log.info("Replica {} is {}s behind, routing reads to it", replica.dataSource.getPoolName(), lag);
+                } else {
+                    log.warn("Replica {} is {}, routing its reads to the primary", replica.dataSource.getPoolName(),
+                        lag == null ? "not replicating or unreachable" : lag + "s behind");
+                }
+            }
+            replica.available = available;
+        }
+    }
+    
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+        primary.close();
+    }
+    
+    private Long readLagSeconds(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(LAG_QUERY_TIMEOUT_SECONDS);
+            try {
+                return readLag(statement, "SHOW REPLICA STATUS", "Seconds_Behind_Source");
+            } catch (SQLException e) {
+                // MySQL before 8.0.22
+                return readLag(statement, "SHOW SLAVE STATUS", "Seconds_Behind_Master");
+            }
+        }
+    }
+    
+    private Long readLag(Statement statement, String sql, String column) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(sql)) {
+            if (!rs.next()) {
+                return null;
+            }
+            long lag = rs.getLong(column);
+            return rs.wasNull() ? null : lag;
+        }
+    }
+    
+    private static final class Replica {
+        private final HikariDataSource dataSource;
+        private volatile boolean available;
+        
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
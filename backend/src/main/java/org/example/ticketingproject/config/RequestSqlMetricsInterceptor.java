@@ -0,0 +1,71 @@
+package org.example.ticketingproject.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records how many SQL statements each request issued as {@code ticketing.request.sql.statements},
+ * tagged like {@code http.server.requests}. Requests above {@code ticketing.sql.request-threshold}
+ * are logged and counted in {@code ticketing.request.sql.threshold.exceeded}, which is what an
+ * N+1 regression shows up as. Async requests (SSE, streamed exports) are not measured.
+ */
+public class RequestSqlMetricsInterceptor implements AsyncHandlerInterceptor {
+    
+    private static final Logger log = LoggerFactory.getLogger(RequestSqlMetricsInterceptor.class);
+    
+    private final MeterRegistry meterRegistry;
+    private final int threshold;
+    
+    public RequestSqlMetricsInterceptor(MeterRegistry meterRegistry, int threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.REQUEST) {
+            SqlStatementCounter.start();
+        }
+        return true;
+    }
+    
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlStatementCounter.stop();
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        int statements = SqlStatementCounter.stop();
+        if (statements < 0) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("ticketing.request.sql.statements")
+            .description("SQL statements issued by Hibernate per request")
+            .baseUnit("statements")
+            .tag("method", request.getMethod())
+            .tag("uri", uri)
+            .register(meterRegistry)
+            .record(statements);
+        if (statements > threshold) {
+            Counter.builder("ticketing.request.sql.threshold.exceeded")
+                .description("Requests that issued more SQL statements than ticketing.sql.request-threshold")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .increment();
+            log.warn("{} {} issued {} SQL statements (threshold {})", request.getMethod(), request.getRequestURI(),
+                statements, threshold);
+        }
+    }
+}
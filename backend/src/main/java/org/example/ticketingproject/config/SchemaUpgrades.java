@@ -0,0 +1,47 @@
+package org.example.ticketingproject.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+
+/**
+ * Schema changes {@code ddl-auto=update} cannot make on an existing database: it adds tables and
+ * columns but never relaxes a constraint. Each step checks the live schema first, so it is a no-op
+ * on a fresh database and safe to run on every node at every start. Runs once Hibernate has
+ * updated the schema and before the application serves requests.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class SchemaUpgrades {
+    
+    private static final Logger log = LoggerFactory.getLogger(SchemaUpgrades.class);
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @PostConstruct
+    void upgrade() {
+        // History rows are recorded without an actor when the caller sends no actorId
+        if (isNotNull("ticket_history", "actor_id")) {
+            log.info("Making ticket_history.actor_id nullable");
+            jdbcTemplate.execute("ALTER TABLE ticket_history MODIFY actor_id BIGINT NULL");
+        }
+    }
+    
+    private boolean isNotNull(String table, String column) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((Connection connection) -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet columns = metaData.getColumns(connection.getCatalog(), connection.getSchema(), table, column)) {
+                return columns.next() && "NO".equals(columns.getString("IS_NULLABLE"));
+            }
+        }));
+    }
+}
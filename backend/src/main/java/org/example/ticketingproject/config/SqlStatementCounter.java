@@ -0,0 +1,35 @@
+package org.example.ticketingproject.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between {@link #start()} and
+ * {@link #stop()}. Statements sent through {@code JdbcTemplate} (bulk ingest, export, history
+ * batches) bypass Hibernate and are not counted.
+ */
+public class SqlStatementCounter implements StatementInspector {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+    
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+    
+    /** Returns the number of statements since {@link #start()}, or -1 if counting was not started. */
+    public static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? -1 : count[0];
+    }
+    
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.ticketingproject.controller;
+
+import org.example.ticketingproject.config.ReadYourWritesFilter;
+import org.example.ticketingproject.dto.TicketDto;
+import org.example.ticketingproject.service.TicketService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/agents")
+@CrossOrigin(origins = "*", exposedHeaders = ReadYourWritesFilter.HEADER_NAME)
+public class AgentController {
+    
+    @Autowired
+    private TicketService ticketService;
+    
+    @PostMapping("/{id}/next")
+    public ResponseEntity<TicketDto> claimNextTicket(@PathVariable Long id) {
+        TicketDto ticket = ticketService.claimNextTicket(id);
+        if (ticket == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(ticket);
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.ticketingproject.controller;
+
+import org.example.ticketingproject.config.ReadYourWritesFilter;
+import org.example.ticketingproject.service.UserCacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache")
+@CrossOrigin(origins = "*", exposedHeaders = ReadYourWritesFilter.HEADER_NAME)
+public class CacheController {
+    
+    @Autowired
+    private UserCacheService userCacheService;
+    
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Map<String, Number>>> getCacheStats() {
+        Map<String, Map<String, Number>> stats = userCacheService.getStats();
+        return ResponseEntity.ok(stats);
+    }
+}
@@ -1,28 +1,38 @@
 package org.example.ticketingproject.controller;
 
+import org.example.ticketingproject.config.ReadYourWritesFilter;
 import org.example.ticketingproject.dto.CommentDto;
 import org.example.ticketingproject.dto.CreateCommentDto;
+import org.example.ticketingproject.dto.CursorPageDto;
 import org.example.ticketingproject.service.CommentService;
+import org.example.ticketingproject.service.ResourceVersion;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
+
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/comments")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = ReadYourWritesFilter.HEADER_NAME)
 public class CommentController {
     
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+    
     @Autowired
     private CommentService commentService;
     
+    @Autowired
+    private PageLimits pageLimits;
+    
     @PostMapping
     public ResponseEntity<CommentDto> createComment(@Valid @RequestBody CreateCommentDto createCommentDto,
                                                    @RequestParam Long authorId) {
@@ -31,15 +41,28 @@ public class CommentController {
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<CommentDto> getCommentById(@PathVariable Long id) {
+    public ResponseEntity<CommentDto> getCommentById(@PathVariable Long id, WebRequest request) {
         CommentDto comment = commentService.getCommentById(id);
-        return ResponseEntity.ok(comment);
+        if (request.checkNotModified(commentService.versionOf(comment).getEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(comment);
     }
     
     @GetMapping("/ticket/{ticketId}")
-    public ResponseEntity<List<CommentDto>> getCommentsByTicketId(@PathVariable Long ticketId) {
-        List<CommentDto> comments = commentService.getCommentsByTicketId(ticketId);
-        return ResponseEntity.ok(comments);
+    public ResponseEntity<List<CommentDto>> getCommentsByTicketId(
+            @PathVariable Long ticketId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size,
+            WebRequest request) {
+        
+        // The version covers the whole thread, so it is valid for every page of it
+        ResourceVersion version = commentService.getCommentListVersion(ticketId);
+        if (request.checkNotModified(version.getEtag(), version.getLastModifiedMillis())) {
+            return null;
+        }
+        Page<CommentDto> comments = commentService.getCommentsByTicketId(ticketId, pageLimits.listPageable(page, size, NEWEST_FIRST));
+        return pageLimits.arrayResponse(comments).cacheControl(CacheControl.noCache().cachePrivate()).body(comments.getContent());
     }
     
     @GetMapping("/ticket/{ticketId}/page")
@@ -48,23 +71,48 @@ public class CommentController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<CommentDto> comments = commentService.getCommentsByTicketId(ticketId, pageable);
+        Page<CommentDto> comments = commentService.getCommentsByTicketId(ticketId, pageLimits.pageable(page, size, NEWEST_FIRST));
+        return ResponseEntity.ok(comments);
+    }
+    
+    @GetMapping("/ticket/{ticketId}/stream")
+    public ResponseEntity<CursorPageDto<CommentDto>> getCommentsByTicketIdAfter(
+            @PathVariable Long ticketId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        
+        CursorPageDto<CommentDto> comments = commentService.getCommentsByTicketIdAfter(
+            ticketId, after, pageLimits.size(limit));
         return ResponseEntity.ok(comments);
     }
     
     @GetMapping("/author/{authorId}")
-    public ResponseEntity<List<CommentDto>> getCommentsByAuthorId(@PathVariable Long authorId) {
-        List<CommentDto> comments = commentService.getCommentsByAuthorId(authorId);
+    public ResponseEntity<List<CommentDto>> getCommentsByAuthorId(
+            @PathVariable Long authorId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        
+        Page<CommentDto> comments = commentService.getCommentsByAuthorId(authorId, pageLimits.listPageable(page, size, NEWEST_FIRST));
+        return pageLimits.arrayResponse(comments).body(comments.getContent());
+    }
+    
+    @GetMapping("/author/{authorId}/page")
+    public ResponseEntity<Page<CommentDto>> getCommentsByAuthorIdPaged(
+            @PathVariable Long authorId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        Page<CommentDto> comments = commentService.getCommentsByAuthorId(authorId, pageLimits.pageable(page, size, NEWEST_FIRST));
         return ResponseEntity.ok(comments);
     }
     
     @PutMapping("/{id}")
     public ResponseEntity<CommentDto> updateComment(@PathVariable Long id,
                                                    @RequestParam String body,
-                                                   @RequestParam Long authorId) {
-        CommentDto updatedComment = commentService.updateComment(id, body, authorId);
-        return ResponseEntity.ok(updatedComment);
+                                                   @RequestParam Long authorId,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        CommentDto updatedComment = commentService.updateComment(id, body, authorId, IfMatchVersion.parse(ifMatch));
+        return ResponseEntity.ok().eTag(commentService.versionOf(updatedComment).getEtag()).body(updatedComment);
     }
     
     @DeleteMapping("/{id}")
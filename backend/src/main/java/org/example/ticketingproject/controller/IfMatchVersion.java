@@ -0,0 +1,36 @@
+package org.example.ticketingproject.controller;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+/**
+ * Reads the entity version from an {@code If-Match} header: either the strong ETag returned by a
+ * single-resource GET or PUT ({@code "3-..."}), or the bare version ({@code "3"}). Only the version
+ * part is compared; the rest of the tag describes embedded users an update does not change.
+ * Returns null for an absent header or {@code *}.
+ */
+final class IfMatchVersion {
+    
+    private IfMatchVersion() {
+    }
+    
+    static Long parse(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            // A weak tag never satisfies If-Match (RFC 9110 13.1.1), so the precondition fails
+            throw new OptimisticLockingFailureException(
+                "If-Match needs a strong ETag from GET or PUT of the resource itself, not " + ifMatch);
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        int dash = value.indexOf('-');
+        try {
+            return Long.parseLong(dash >= 0 ? value.substring(0, dash) : value);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid If-Match header, expected the ETag or entity version: " + ifMatch);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.ticketingproject.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * Server-wide cap on list sizes. Every paged or cursor endpoint passes the client's size
+ * through here, so no request can pull more than {@code ticketing.api.max-page-size} rows.
+ * The older routes that answer with a bare JSON array are capped at
+ * {@code ticketing.api.max-list-size} instead and say so in their headers.
+ */
+@Component
+public class PageLimits {
+    
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    
+    @Value("${ticketing.api.max-page-size:100}")
+    private int maxPageSize;
+    
+    @Value("${ticketing.api.max-list-size:1000}")
+    private int maxListSize;
+    
+    public int size(int requested) {
+        return Math.min(Math.max(requested, 1), maxPageSize);
+    }
+    
+    public Pageable pageable(int page, int size, Sort sort) {
+        return PageRequest.of(Math.max(page, 0), size(size), sort);
+    }
+    
+    /** Rows for an array route: {@code size} if given, else as many as allowed, up to max-list-size. */
+    public Pageable listPageable(int page, Integer size, Sort sort) {
+        int limit = size != null ? Math.min(Math.max(size, 1), maxListSize) : maxListSize;
+        return PageRequest.of(Math.max(page, 0), limit, sort);
+    }
+    
+    /**
+     * Headers for answering with {@code page.getContent()} as a bare array: the total in
+     * {@code X-Total-Count} and, when rows were left out, a {@code Link} to the next page.
+     */
+    public ResponseEntity.BodyBuilder arrayResponse(Page<?> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .header(TOTAL_COUNT_HEADER, Long.toString(page.getTotalElements()));
+        if (page.hasNext()) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("page", page.getNumber() + 1)
+                .replaceQueryParam("size", page.getSize())
+                .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response;
+    }
+}
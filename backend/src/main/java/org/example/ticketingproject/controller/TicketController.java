@@ -1,30 +1,71 @@
 package org.example.ticketingproject.controller;
 
+import org.example.ticketingproject.config.ReadYourWritesFilter;
+import org.example.ticketingproject.dto.BulkCreateTicketDto;
+import org.example.ticketingproject.dto.BulkResultDto;
 import org.example.ticketingproject.dto.CreateTicketDto;
+import org.example.ticketingproject.dto.CursorPageDto;
+import org.example.ticketingproject.dto.TicketDetailDto;
 import org.example.ticketingproject.dto.TicketDto;
+import org.example.ticketingproject.dto.TicketHistoryDto;
+import org.example.ticketingproject.dto.TicketQueryDto;
+import org.example.ticketingproject.dto.TicketStatsDto;
 import org.example.ticketingproject.dto.UpdateTicketDto;
 import org.example.ticketingproject.entity.TicketPriority;
 import org.example.ticketingproject.entity.TicketStatus;
+import org.example.ticketingproject.service.ResourceVersion;
+import org.example.ticketingproject.service.TicketBulkService;
+import org.example.ticketingproject.service.TicketEventBus;
+import org.example.ticketingproject.service.TicketExportService;
 import org.example.ticketingproject.service.TicketService;
+import org.example.ticketingproject.service.TicketSortRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/tickets")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = ReadYourWritesFilter.HEADER_NAME)
 public class TicketController {
     
     @Autowired
     private TicketService ticketService;
     
+    @Autowired
+    private TicketBulkService ticketBulkService;
+    
+    @Autowired
+    private TicketEventBus ticketEventBus;
+    
+    @Autowired
+    private TicketExportService ticketExportService;
+    
+    @Autowired
+    private TicketSortRegistry ticketSortRegistry;
+    
+    @Autowired
+    private PageLimits pageLimits;
+    
     @PostMapping
     public ResponseEntity<TicketDto> createTicket(@Valid @RequestBody CreateTicketDto createTicketDto, 
                                                  @RequestParam Long ownerId) {
@@ -32,18 +73,117 @@ public class TicketController {
         return new ResponseEntity<>(createdTicket, HttpStatus.CREATED);
     }
     
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkResultDto> createTickets(@RequestBody List<BulkCreateTicketDto> tickets) {
+        BulkResultDto result = ticketBulkService.createTickets(tickets);
+        return ResponseEntity.ok(result);
+    }
+    
+    @PostMapping(value = "/bulk", consumes = "application/x-ndjson")
+    public ResponseEntity<BulkResultDto> createTicketsFromStream(HttpServletRequest request) throws IOException {
+        BulkResultDto result = ticketBulkService.createTickets(request.getInputStream());
+        return ResponseEntity.ok(result);
+    }
+    
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestParam(required = false) Set<Long> assigneeId,
+                                   @RequestParam(required = false) Set<String> status,
+                                   @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        Set<TicketStatus> statuses = new HashSet<>();
+        if (status != null) {
+            for (String value : status) {
+                try {
+                    statuses.add(TicketStatus.valueOf(value.toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    throw new RuntimeException("Invalid status: " + value);
+                }
+            }
+        }
+        return ticketEventBus.subscribe(assigneeId, statuses, lastEventId);
+    }
+    
+    @GetMapping("/export")
+    public void exportTickets(@RequestParam(defaultValue = "tickets") String type,
+                              @RequestParam(defaultValue = "csv") String format,
+                              @RequestParam(required = false) String status,
+                              @RequestParam(required = false) String priority,
+                              @RequestParam(required = false) Long ownerId,
+                              @RequestParam(required = false) Long assigneeId,
+                              @RequestParam(defaultValue = "false") boolean gzip,
+                              HttpServletResponse response) throws IOException {
+        TicketExportService.Dataset dataset = TicketExportService.parseDataset(type);
+        TicketExportService.Format exportFormat = TicketExportService.parseFormat(format);
+        TicketStatus ticketStatus = null;
+        TicketPriority ticketPriority = null;
+        try {
+            ticketStatus = status != null ? TicketStatus.valueOf(status.toUpperCase()) : null;
+            ticketPriority = priority != null ? TicketPriority.valueOf(priority.toUpperCase()) : null;
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid status or priority: " + e.getMessage());
+        }
+        
+        ticketExportService.acquire();
+        try {
+            String filename = dataset.name().toLowerCase() + "-" + Instant.now().getEpochSecond() + "."
+                + (exportFormat == TicketExportService.Format.CSV ? "csv" : "ndjson");
+            response.setContentType(exportFormat == TicketExportService.Format.CSV
+                ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+            if (gzip) {
+                response.setContentType("application/gzip");
+                filename += ".gz";
+            }
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+            
+            OutputStream out = gzip ? new GZIPOutputStream(response.getOutputStream(), 64 * 1024) : response.getOutputStream();
+            ticketExportService.export(dataset, exportFormat, ticketStatus, ticketPriority, ownerId, assigneeId, out);
+            if (out instanceof GZIPOutputStream gzipOut) {
+                gzipOut.finish();
+            }
+        } finally {
+            ticketExportService.release();
+        }
+    }
+    
+    @GetMapping("/stats")
+    public ResponseEntity<TicketStatsDto> getTicketStats() {
+        TicketStatsDto stats = ticketService.getTicketStats();
+        return ResponseEntity.ok(stats);
+    }
+    
     @GetMapping("/{id}")
-    public ResponseEntity<TicketDto> getTicketById(@PathVariable Long id) {
+    public ResponseEntity<TicketDto> getTicketById(@PathVariable Long id, WebRequest request) {
+        ResourceVersion version = ticketService.getTicketVersion(id);
+        if (request.checkNotModified(version.getEtag(), version.getLastModifiedMillis())) {
+            return null;
+        }
         TicketDto ticket = ticketService.getTicketById(id);
-        return ResponseEntity.ok(ticket);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(ticket);
+    }
+    
+    @GetMapping("/{id}/full")
+    public ResponseEntity<TicketDetailDto> getTicketDetail(@PathVariable Long id,
+                                                           @RequestParam(required = false) String after,
+                                                           @RequestParam(defaultValue = "20") int limit,
+                                                           WebRequest request) {
+        ResourceVersion version = ticketService.getTicketDetailVersion(id);
+        if (request.checkNotModified(version.getEtag(), version.getLastModifiedMillis())) {
+            return null;
+        }
+        TicketDetailDto detail = ticketService.getTicketDetail(id, after, pageLimits.size(limit));
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(detail);
     }
     
     @GetMapping("/code/{code}")
-    public ResponseEntity<TicketDto> getTicketByCode(@PathVariable String code) {
+    public ResponseEntity<TicketDto> getTicketByCode(@PathVariable String code, WebRequest request) {
+        ResourceVersion version = ticketService.getTicketVersionByCode(code);
+        if (request.checkNotModified(version.getEtag(), version.getLastModifiedMillis())) {
+            return null;
+        }
         TicketDto ticket = ticketService.getTicketByCode(code);
-        return ResponseEntity.ok(ticket);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(ticket);
     }
     
+    @TicketListView
     @GetMapping
     public ResponseEntity<Page<TicketDto>> getAllTickets(
             @RequestParam(defaultValue = "0") int page,
@@ -51,45 +191,61 @@ public class TicketController {
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir) {
         
-        Sort sort = sortDir.equalsIgnoreCase("desc") ? 
-            Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        Pageable pageable = PageRequest.of(page, size, sort);
-        
+        Pageable pageable = ticketSortRegistry.pageable(page, pageLimits.size(size), sortBy, sortDir, TicketSortRegistry.Scope.ALL);
         Page<TicketDto> tickets = ticketService.getAllTickets(pageable);
         return ResponseEntity.ok(tickets);
     }
     
+    @TicketListView
+    @GetMapping("/stream")
+    public ResponseEntity<CursorPageDto<TicketDto>> getTicketsAfter(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        
+        CursorPageDto<TicketDto> tickets = ticketService.getTicketsAfter(after, pageLimits.size(limit));
+        return ResponseEntity.ok(tickets);
+    }
+    
+    @TicketListView
     @GetMapping("/owner/{ownerId}")
     public ResponseEntity<Page<TicketDto>> getTicketsByOwner(
             @PathVariable Long ownerId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir) {
         
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        Pageable pageable = ticketSortRegistry.pageable(page, pageLimits.size(size), sortBy, sortDir, TicketSortRegistry.Scope.OWNER);
         Page<TicketDto> tickets = ticketService.getTicketsByOwner(ownerId, pageable);
         return ResponseEntity.ok(tickets);
     }
     
+    @TicketListView
     @GetMapping("/assignee/{assigneeId}")
     public ResponseEntity<Page<TicketDto>> getTicketsByAssignee(
             @PathVariable Long assigneeId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir) {
         
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        Pageable pageable = ticketSortRegistry.pageable(page, pageLimits.size(size), sortBy, sortDir, TicketSortRegistry.Scope.ASSIGNEE);
         Page<TicketDto> tickets = ticketService.getTicketsByAssignee(assigneeId, pageable);
         return ResponseEntity.ok(tickets);
     }
     
+    @TicketListView
     @GetMapping("/status/{status}")
     public ResponseEntity<Page<TicketDto>> getTicketsByStatus(
             @PathVariable String status,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir) {
         
         try {
             TicketStatus ticketStatus = TicketStatus.valueOf(status.toUpperCase());
-            Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+            Pageable pageable = ticketSortRegistry.pageable(page, pageLimits.size(size), sortBy, sortDir, TicketSortRegistry.Scope.STATUS);
             Page<TicketDto> tickets = ticketService.getTicketsByStatus(ticketStatus, pageable);
             return ResponseEntity.ok(tickets);
         } catch (IllegalArgumentException e) {
@@ -97,15 +253,18 @@ public class TicketController {
         }
     }
     
+    @TicketListView
     @GetMapping("/priority/{priority}")
     public ResponseEntity<Page<TicketDto>> getTicketsByPriority(
             @PathVariable String priority,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir) {
         
         try {
             TicketPriority ticketPriority = TicketPriority.valueOf(priority.toUpperCase());
-            Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+            Pageable pageable = ticketSortRegistry.pageable(page, pageLimits.size(size), sortBy, sortDir, TicketSortRegistry.Scope.PRIORITY);
             Page<TicketDto> tickets = ticketService.getTicketsByPriority(ticketPriority, pageable);
             return ResponseEntity.ok(tickets);
         } catch (IllegalArgumentException e) {
@@ -113,22 +272,54 @@ public class TicketController {
         }
     }
     
+    @TicketListView
+    @GetMapping("/query")
+    public ResponseEntity<Page<TicketDto>> queryTickets(
+            TicketQueryDto filter,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir) {
+        
+        TicketSortRegistry.Scope scope = filter.isNarrowing() ? TicketSortRegistry.Scope.FILTERED : TicketSortRegistry.Scope.ALL;
+        Pageable pageable = ticketSortRegistry.pageable(page, pageLimits.size(size), sortBy, sortDir, scope);
+        Page<TicketDto> tickets = ticketService.queryTickets(filter, pageable);
+        return ResponseEntity.ok(tickets);
+    }
+    
+    @TicketListView
     @GetMapping("/search")
     public ResponseEntity<Page<TicketDto>> searchTickets(
             @RequestParam String searchTerm,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        // Results come back in relevance order from the search index
+        Pageable pageable = pageLimits.pageable(page, size, Sort.unsorted());
         Page<TicketDto> tickets = ticketService.searchTickets(searchTerm, pageable);
         return ResponseEntity.ok(tickets);
     }
     
+    @PostMapping("/search/reindex")
+    public ResponseEntity<Long> rebuildSearchIndex() {
+        long indexed = ticketService.rebuildSearchIndex();
+        return ResponseEntity.ok(indexed);
+    }
+    
+    @GetMapping("/{id}/history")
+    public ResponseEntity<List<TicketHistoryDto>> getTicketHistory(@PathVariable Long id) {
+        List<TicketHistoryDto> history = ticketService.getTicketHistory(id);
+        return ResponseEntity.ok(history);
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<TicketDto> updateTicket(@PathVariable Long id, 
-                                                 @Valid @RequestBody UpdateTicketDto updateTicketDto) {
-        TicketDto updatedTicket = ticketService.updateTicket(id, updateTicketDto);
-        return ResponseEntity.ok(updatedTicket);
+                                                 @Valid @RequestBody UpdateTicketDto updateTicketDto,
+                                                 @RequestParam(required = false) Long actorId,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = ifMatch != null ? IfMatchVersion.parse(ifMatch) : updateTicketDto.getVersion();
+        TicketDto updatedTicket = ticketService.updateTicket(id, updateTicketDto, actorId, expectedVersion);
+        return ResponseEntity.ok().eTag(ticketService.versionOf(updatedTicket).getEtag()).body(updatedTicket);
     }
     
     @DeleteMapping("/{id}")
@@ -138,16 +329,18 @@ public class TicketController {
     }
     
     @PatchMapping("/{id}/assign/{assigneeId}")
-    public ResponseEntity<Void> assignTicket(@PathVariable Long id, @PathVariable Long assigneeId) {
-        ticketService.assignTicket(id, assigneeId);
+    public ResponseEntity<Void> assignTicket(@PathVariable Long id, @PathVariable Long assigneeId,
+                                             @RequestParam(required = false) Long actorId) {
+        ticketService.assignTicket(id, assigneeId, actorId);
         return ResponseEntity.ok().build();
     }
     
     @PatchMapping("/{id}/status/{status}")
-    public ResponseEntity<Void> changeTicketStatus(@PathVariable Long id, @PathVariable String status) {
+    public ResponseEntity<Void> changeTicketStatus(@PathVariable Long id, @PathVariable String status,
+                                                   @RequestParam(required = false) Long actorId) {
         try {
             TicketStatus ticketStatus = TicketStatus.valueOf(status.toUpperCase());
-            ticketService.changeTicketStatus(id, ticketStatus);
+            ticketService.changeTicketStatus(id, ticketStatus, actorId);
             return ResponseEntity.ok().build();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
@@ -0,0 +1,140 @@
+package org.example.ticketingproject.controller;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.example.ticketingproject.dto.CompactTicketDto;
+import org.example.ticketingproject.dto.CompactTicketPageDto;
+import org.example.ticketingproject.dto.CursorPageDto;
+import org.example.ticketingproject.dto.TicketDto;
+import org.example.ticketingproject.dto.UserDto;
+import org.springframework.core.MethodParameter;
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies {@code fields=} and the compact CBOR encoding to {@link TicketListView} handlers.
+ */
+@RestControllerAdvice
+public class TicketListResponseAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+    
+    private static final Set<String> TICKET_FIELDS = Arrays.stream(TicketDto.class.getDeclaredFields())
+        .filter(field -> !Modifier.isStatic(field.getModifiers()))
+        .map(Field::getName)
+        .collect(Collectors.toUnmodifiableSet());
+    
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return super.supports(returnType, converterType) && returnType.hasMethodAnnotation(TicketListView.class);
+    }
+    
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        Set<String> fields = requestedFields(request);
+        boolean compact = MediaType.APPLICATION_CBOR.isCompatibleWith(contentType);
+        
+        if (compact) {
+            bodyContainer.setValue(toCompact(bodyContainer.getValue(), fields));
+        }
+        if (fields != null) {
+            Set<String> kept = compact ? compactFieldNames(fields) : fields;
+            bodyContainer.setFilters(new SimpleFilterProvider()
+                .addFilter(TicketDto.FIELD_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(kept))
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+        }
+    }
+    
+    private Set<String> requestedFields(ServerHttpRequest request) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return null;
+        }
+        String param = servletRequest.getServletRequest().getParameter("fields");
+        if (param == null || param.isBlank()) {
+            return null;
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        fields.add("id");
+        for (String name : param.split(",")) {
+            String field = name.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (!TICKET_FIELDS.contains(field)) {
+                throw new RuntimeException("Unknown field: " + field);
+            }
+            fields.add(field);
+        }
+        return fields;
+    }
+    
+    private Set<String> compactFieldNames(Set<String> fields) {
+        return fields.stream()
+            .map(field -> field.equals("owner") || field.equals("assignee") ? field + "Id" : field)
+            .collect(Collectors.toSet());
+    }
+    
+    private Object toCompact(Object body, Set<String> fields) {
+        CompactTicketPageDto compact = new CompactTicketPageDto();
+        List<?> content;
+        if (body instanceof Page<?> page) {
+            content = page.getContent();
+            compact.setNumber(page.getNumber());
+            compact.setSize(page.getSize());
+            compact.setTotalElements(page.getTotalElements());
+            compact.setTotalPages(page.getTotalPages());
+        } else if (body instanceof CursorPageDto<?> slice) {
+            content = slice.getContent();
+            compact.setSize(slice.getSize());
+            compact.setHasNext(slice.isHasNext());
+            compact.setNextCursor(slice.getNextCursor());
+        } else {
+            return body;
+        }
+        
+        // Users only go into the side table if the rows that reference them are kept
+        boolean keepOwner = fields == null || fields.contains("owner");
+        boolean keepAssignee = fields == null || fields.contains("assignee");
+        for (Object item : content) {
+            TicketDto ticket = (TicketDto) item;
+            CompactTicketDto row = new CompactTicketDto();
+            row.setId(ticket.getId());
+            row.setCode(ticket.getCode());
+            row.setSubject(ticket.getSubject());
+            row.setDescription(ticket.getDescription());
+            row.setStatus(ticket.getStatus());
+            row.setPriority(ticket.getPriority());
+            row.setOwnerId(keepOwner ? addUser(compact, ticket.getOwner()) : null);
+            row.setAssigneeId(keepAssignee ? addUser(compact, ticket.getAssignee()) : null);
+            row.setClosedAt(ticket.getClosedAt());
+            row.setCreatedAt(ticket.getCreatedAt());
+            row.setUpdatedAt(ticket.getUpdatedAt());
+            row.setVersion(ticket.getVersion());
+            compact.getContent().add(row);
+        }
+        return compact;
+    }
+    
+    private Long addUser(CompactTicketPageDto compact, UserDto user) {
+        if (user == null) {
+            return null;
+        }
+        compact.getUsers().putIfAbsent(user.getId(), user);
+        return user.getId();
+    }
+}
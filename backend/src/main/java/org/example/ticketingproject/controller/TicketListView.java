@@ -0,0 +1,18 @@
+package org.example.ticketingproject.controller;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler returning a page or slice of tickets. Such responses accept a
+ * {@code fields=id,code,status,...} parameter and, for {@code Accept: application/cbor}, are
+ * sent as a {@link org.example.ticketingproject.dto.CompactTicketPageDto}.
+ *
+ * @see TicketListResponseAdvice
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface TicketListView {
+}
@@ -1,30 +1,63 @@
 package org.example.ticketingproject.controller;
 
+import org.example.ticketingproject.config.ReadYourWritesFilter;
+import org.example.ticketingproject.dto.BulkResultDto;
 import org.example.ticketingproject.dto.CreateUserDto;
+import org.example.ticketingproject.dto.LoginDto;
 import org.example.ticketingproject.dto.UserDto;
+import org.example.ticketingproject.service.UserBulkService;
 import org.example.ticketingproject.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/users")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = ReadYourWritesFilter.HEADER_NAME)
 public class UserController {
     
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private UserBulkService userBulkService;
+    
+    @Autowired
+    private PageLimits pageLimits;
+    
     @PostMapping
     public ResponseEntity<UserDto> createUser(@Valid @RequestBody CreateUserDto createUserDto) {
         UserDto createdUser = userService.createUser(createUserDto);
         return new ResponseEntity<>(createdUser, HttpStatus.CREATED);
     }
     
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkResultDto> createUsers(@RequestBody List<CreateUserDto> users) {
+        BulkResultDto result = userBulkService.createUsers(users);
+        return ResponseEntity.ok(result);
+    }
+    
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<BulkResultDto> createUsersFromCsv(HttpServletRequest request) throws IOException {
+        BulkResultDto result = userBulkService.createUsers(request.getInputStream());
+        return ResponseEntity.ok(result);
+    }
+    
+    @PostMapping("/login")
+    public ResponseEntity<UserDto> login(@Valid @RequestBody LoginDto loginDto) {
+        UserDto user = userService.login(loginDto.getEmail(), loginDto.getPassword());
+        return ResponseEntity.ok(user);
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<UserDto> getUserById(@PathVariable Long id) {
         UserDto user = userService.getUserById(id);
@@ -38,14 +71,47 @@ public class UserController {
     }
     
     @GetMapping
-    public ResponseEntity<List<UserDto>> getAllUsers() {
-        List<UserDto> users = userService.getAllUsers();
+    public ResponseEntity<List<UserDto>> getAllUsers(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        
+        Page<UserDto> users = userService.getAllUsers(pageLimits.listPageable(page, size, Sort.by("id")));
+        return pageLimits.arrayResponse(users).body(users.getContent());
+    }
+    
+    @GetMapping("/page")
+    public ResponseEntity<Page<UserDto>> getAllUsersPaged(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        Page<UserDto> users = userService.getAllUsers(pageLimits.pageable(page, size, Sort.by("id")));
         return ResponseEntity.ok(users);
     }
     
     @GetMapping("/active")
-    public ResponseEntity<List<UserDto>> getActiveUsers() {
-        List<UserDto> users = userService.getActiveUsers();
+    public ResponseEntity<List<UserDto>> getActiveUsers(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        
+        Page<UserDto> users = userService.getActiveUsers(pageLimits.listPageable(page, size, Sort.by("id")));
+        return pageLimits.arrayResponse(users).body(users.getContent());
+    }
+    
+    @GetMapping("/active/page")
+    public ResponseEntity<Page<UserDto>> getActiveUsersPaged(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        Page<UserDto> users = userService.getActiveUsers(pageLimits.pageable(page, size, Sort.by("id")));
+        return ResponseEntity.ok(users);
+    }
+    
+    @GetMapping("/search")
+    public ResponseEntity<List<UserDto>> searchActiveUsers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        List<UserDto> users = userService.searchActiveUsers(q, pageLimits.pageable(0, limit, Sort.by("fullName", "id")));
         return ResponseEntity.ok(users);
     }
     
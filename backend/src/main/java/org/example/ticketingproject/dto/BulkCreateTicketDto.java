@@ -0,0 +1,23 @@
+package org.example.ticketingproject.dto;
+
+import lombok.Data;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+@Data
+public class BulkCreateTicketDto {
+    @NotNull(message = "Owner ID is required")
+    private Long ownerId;
+
+    @NotBlank(message = "Subject is required")
+    @Size(min = 5, max = 200, message = "Subject must be between 5 and 200 characters")
+    private String subject;
+
+    @NotBlank(message = "Description is required")
+    @Size(min = 10, message = "Description must be at least 10 characters")
+    private String description;
+
+    private String priority;
+    private Long assigneeId;
+}
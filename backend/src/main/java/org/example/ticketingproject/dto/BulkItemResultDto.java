@@ -0,0 +1,15 @@
+package org.example.ticketingproject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResultDto {
+    private int index;
+    private Long id;
+    private String reference;
+    private String error;
+}
@@ -0,0 +1,30 @@
+package org.example.ticketingproject.dto;
+
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Data
+public class BulkResultDto {
+    private int received;
+    private int created;
+    private int failed;
+    private long elapsedMillis;
+    private double itemsPerSecond;
+    private List<BulkItemResultDto> results = new ArrayList<>();
+    
+    /** Orders the item results by index, tallies them and records the throughput since {@code startedNanos}. */
+    public BulkResultDto complete(long startedNanos) {
+        results.sort(Comparator.comparingInt(BulkItemResultDto::getIndex));
+        if (received == 0) {
+            received = results.size();
+        }
+        created = (int) results.stream().filter(item -> item.getError() == null).count();
+        failed = received - created;
+        long elapsedNanos = System.nanoTime() - startedNanos;
+        elapsedMillis = elapsedNanos / 1_000_000;
+        itemsPerSecond = elapsedNanos > 0 ? created * 1_000_000_000.0 / elapsedNanos : 0;
+        return this;
+    }
+}
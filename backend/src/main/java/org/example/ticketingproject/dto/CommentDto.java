@@ -11,4 +11,5 @@ public class CommentDto {
     private Long ticketId;
     private Instant createdAt;
     private Instant updatedAt;
+    private Long version;
 }
@@ -0,0 +1,28 @@
+package org.example.ticketingproject.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import java.time.Instant;
+
+/**
+ * Ticket row of {@link CompactTicketPageDto}: users are referenced by id and listed once in the
+ * page's {@code users} table.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonFilter(TicketDto.FIELD_FILTER)
+public class CompactTicketDto {
+    private Long id;
+    private String code;
+    private String subject;
+    private String description;
+    private String status;
+    private String priority;
+    private Long ownerId;
+    private Long assigneeId;
+    private Instant closedAt;
+    private Instant createdAt;
+    private Instant updatedAt;
+    private Long version;
+}
@@ -0,0 +1,25 @@
+package org.example.ticketingproject.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact (CBOR) form of a ticket list. Offset pages fill the page fields, keyset slices fill
+ * {@code hasNext}/{@code nextCursor}; whichever does not apply is left out.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompactTicketPageDto {
+    private List<CompactTicketDto> content = new ArrayList<>();
+    private Map<Long, UserDto> users = new LinkedHashMap<>();
+    private Integer number;
+    private Integer size;
+    private Long totalElements;
+    private Integer totalPages;
+    private Boolean hasNext;
+    private String nextCursor;
+}
@@ -0,0 +1,12 @@
+package org.example.ticketingproject.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class CursorPageDto<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
@@ -0,0 +1,12 @@
+package org.example.ticketingproject.dto;
+
+import lombok.Data;
+
+@Data
+public class TicketDetailDto {
+    /** The ticket with {@code comments} holding the requested slice, newest first. */
+    private TicketDto ticket;
+    private long commentCount;
+    /** Pass as {@code after} to fetch the next, older slice; null once the thread is exhausted. */
+    private String nextCommentCursor;
+}
@@ -1,11 +1,17 @@
 package org.example.ticketingproject.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.Data;
 import java.time.Instant;
 import java.util.List;
 
 @Data
+@JsonFilter(TicketDto.FIELD_FILTER)
 public class TicketDto {
+    
+    /** Jackson filter id used to apply {@code fields=} to ticket lists; serializes everything otherwise. */
+    public static final String FIELD_FILTER = "ticketFields";
+    
     private Long id;
     private String code;
     private String subject;
@@ -18,4 +24,5 @@ public class TicketDto {
     private List<CommentDto> comments;
     private Instant createdAt;
     private Instant updatedAt;
+    private Long version;
 }
@@ -0,0 +1,29 @@
+package org.example.ticketingproject.dto;
+
+import lombok.Data;
+import java.time.Instant;
+
+@Data
+public class TicketEventDto {
+    
+    public enum Type {
+        TICKET_CREATED,
+        TICKET_UPDATED,
+        TICKET_DELETED,
+        COMMENT_CREATED,
+        COMMENT_UPDATED,
+        COMMENT_DELETED
+    }
+    
+    private long id;
+    private Type type;
+    private Long ticketId;
+    private String ticketCode;
+    private String status;
+    private String previousStatus;
+    private String priority;
+    private Long assigneeId;
+    private Long previousAssigneeId;
+    private Long commentId;
+    private Instant at;
+}
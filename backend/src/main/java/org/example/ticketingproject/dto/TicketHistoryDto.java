@@ -0,0 +1,17 @@
+package org.example.ticketingproject.dto;
+
+import lombok.Data;
+import java.time.Instant;
+
+@Data
+public class TicketHistoryDto {
+    private Long id;
+    private Long ticketId;
+    private UserDto actor;
+    private String fromStatus;
+    private String toStatus;
+    private UserDto fromAssignee;
+    private UserDto toAssignee;
+    private Instant at;
+    private String note;
+}
@@ -0,0 +1,31 @@
+package org.example.ticketingproject.dto;
+
+import lombok.Data;
+import org.example.ticketingproject.entity.TicketPriority;
+import org.example.ticketingproject.entity.TicketStatus;
+
+import java.time.Instant;
+import java.util.Set;
+
+@Data
+public class TicketQueryDto {
+    private Set<TicketStatus> status;
+    private Set<TicketPriority> priority;
+    private Long ownerId;
+    private Long assigneeId;
+    private Boolean unassigned;
+    private Instant createdFrom;
+    private Instant createdTo;
+    private Instant closedFrom;
+    private Instant closedTo;
+    
+    /**
+     * True if some filter is an equality on a selective indexed column (owner, assignee, or no
+     * assignee), so the index narrows the rows before they are sorted. Status and priority have a
+     * handful of values each, and one of them (e.g. CLOSED) can match most rows, so they do not
+     * count; neither do ranges or {@code unassigned=false}.
+     */
+    public boolean isNarrowing() {
+        return ownerId != null || assigneeId != null || Boolean.TRUE.equals(unassigned);
+    }
+}
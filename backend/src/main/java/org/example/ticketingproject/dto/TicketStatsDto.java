@@ -0,0 +1,13 @@
+package org.example.ticketingproject.dto;
+
+import lombok.Data;
+import java.util.Map;
+
+@Data
+public class TicketStatsDto {
+    private long total;
+    private Map<String, Long> byStatus;
+    private Map<String, Long> byPriority;
+    private Map<Long, Long> byAssignee;
+    private long unassigned;
+}
@@ -0,0 +1,35 @@
+package org.example.ticketingproject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.example.ticketingproject.entity.TicketPriority;
+import org.example.ticketingproject.entity.TicketStatus;
+
+import java.time.Instant;
+
+/**
+ * Flat row used by the ticket list queries. Carries the owner/assignee columns
+ * alongside the ticket so a page is read in a single select, and leaves out the
+ * description LOB which list views never render.
+ */
+@Data
+@AllArgsConstructor
+public class TicketSummaryDto {
+    private Long id;
+    private String code;
+    private String subject;
+    private TicketStatus status;
+    private TicketPriority priority;
+    private Long ownerId;
+    private String ownerFullName;
+    private String ownerEmail;
+    private Boolean ownerActive;
+    private Long assigneeId;
+    private String assigneeFullName;
+    private String assigneeEmail;
+    private Boolean assigneeActive;
+    private Instant closedAt;
+    private Instant createdAt;
+    private Instant updatedAt;
+    private Long version;
+}
@@ -14,4 +14,7 @@ public class UpdateTicketDto {
     private String status;
     private String priority;
     private Long assigneeId;
+    
+    /** Version the client last read; the update is rejected with 409 if the ticket has changed since. */
+    private Long version;
 }
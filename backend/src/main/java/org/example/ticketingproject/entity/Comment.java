@@ -7,7 +7,11 @@ import lombok.EqualsAndHashCode;
 
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "comments", indexes = @Index(name = "idx_comment_ticket", columnList = "ticket_id"))
+@Table(name = "comments", indexes = {
+        @Index(name = "idx_comment_ticket_created", columnList = "ticket_id, created_at, id"),
+        @Index(name = "idx_comment_author_created", columnList = "author_id, created_at, id"),
+        @Index(name = "idx_comment_updated", columnList = "updated_at")
+})
 @Data
 public class Comment extends Auditable {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -24,4 +28,7 @@ public class Comment extends Auditable {
     @Lob @Column(nullable = false)
     private String body;
 
+    @Version @Column(nullable = false)
+    private Long version;
+
 }
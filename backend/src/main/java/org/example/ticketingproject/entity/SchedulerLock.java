@@ -0,0 +1,24 @@
+package org.example.ticketingproject.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Lease on a scheduled job that only one node may run at a time, e.g. the ticket counter flush.
+ * Held by {@code lockedBy} until {@code lockedUntil}; the holder renews it each time it runs.
+ */
+@Entity
+@Table(name = "scheduler_locks")
+@Data
+public class SchedulerLock {
+    @Id @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false, length = 64)
+    private String lockedBy;
+
+    @Column(nullable = false)
+    private Instant lockedUntil;
+}
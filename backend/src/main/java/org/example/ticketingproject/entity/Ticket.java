@@ -3,6 +3,7 @@ package org.example.ticketingproject.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.Instant;
 import java.util.ArrayList;
@@ -12,10 +13,14 @@ import java.util.List;
 @Entity
 @Table(name = "tickets",
         indexes = {
-                @Index(name = "idx_ticket_status", columnList = "status"),
-                @Index(name = "idx_ticket_priority", columnList = "priority"),
-                @Index(name = "idx_ticket_owner", columnList = "owner_id"),
-                @Index(name = "idx_ticket_assignee", columnList = "assignee_id")
+                @Index(name = "idx_ticket_status_created", columnList = "status, created_at"),
+                @Index(name = "idx_ticket_priority_created", columnList = "priority, created_at"),
+                @Index(name = "idx_ticket_owner_created", columnList = "owner_id, created_at"),
+                @Index(name = "idx_ticket_assignee_created", columnList = "assignee_id, created_at"),
+                @Index(name = "idx_ticket_assignee_status_created", columnList = "assignee_id, status, created_at"),
+                @Index(name = "idx_ticket_closed", columnList = "closed_at"),
+                @Index(name = "idx_ticket_created_id", columnList = "created_at, id"),
+                @Index(name = "idx_ticket_updated", columnList = "updated_at")
         })
 @Data
 public class Ticket extends Auditable {
@@ -47,10 +52,15 @@ public class Ticket extends Auditable {
 
     private Instant closedAt;
 
+    @Version @Column(nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     private List<Comment> comments = new ArrayList<>();
 
     @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     private List<TicketHistory> history = new ArrayList<>();
 
 }
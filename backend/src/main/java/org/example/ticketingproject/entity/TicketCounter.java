@@ -0,0 +1,24 @@
+package org.example.ticketingproject.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Snapshot of one dashboard counter, e.g. {@code status:OPEN} or {@code assignee:42}.
+ * Written periodically from the in-memory counters kept by TicketCounterService.
+ */
+@Entity
+@Table(name = "ticket_counters")
+@Data
+public class TicketCounter {
+    @Id @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private long total;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
@@ -9,7 +9,7 @@ import java.time.Instant;
 
 @Entity
 @Table(name = "ticket_history",
-        indexes = @Index(name = "idx_history_ticket", columnList = "ticket_id"))
+        indexes = @Index(name = "idx_history_ticket_at", columnList = "ticket_id, at, id"))
 @Data
 public class TicketHistory {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -19,9 +19,9 @@ public class TicketHistory {
     @JoinColumn(name = "ticket_id")
     private Ticket ticket;
 
-    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "actor_id")
-    private User actor; // who performed the action
+    private User actor; // who performed the action, null when the caller did not say
 
     @Enumerated(EnumType.STRING) @Column(length = 32)
     private TicketStatus fromStatus;
@@ -0,0 +1,25 @@
+package org.example.ticketingproject.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * A user changed or removed on some node. Every node polls these rows and drops the user from its
+ * own cache; rows are pruned once every node has had time to see them.
+ */
+@Entity
+@Table(name = "user_cache_invalidations",
+        indexes = @Index(name = "idx_user_cache_invalidation_created", columnList = "created_at"))
+@Data
+public class UserCacheInvalidation {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,19 @@
+package org.example.ticketingproject.exception;
+
+/**
+ * Thrown when a bounded resource has no room for more work. The request itself was fine, so it is
+ * answered with 503 and a {@code Retry-After} hint instead of 400.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+    
+    private final long retryAfterSeconds;
+    
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -3,19 +3,62 @@ package org.example.ticketingproject.repository;
 import org.example.ticketingproject.entity.Comment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     
-    List<Comment> findByTicketIdOrderByCreatedAtDesc(Long ticketId);
+    interface TicketCommentBody {
+        Long getTicketId();
+        String getBody();
+    }
     
+    interface ListVersion {
+        long getCommentCount();
+        Instant getLastUpdatedAt();
+        Instant getLastAuthorUpdatedAt();
+    }
+    
+    @EntityGraph(attributePaths = "author")
     Page<Comment> findByTicketId(Long ticketId, Pageable pageable);
     
-    List<Comment> findByAuthorIdOrderByCreatedAtDesc(Long authorId);
+    @EntityGraph(attributePaths = "author")
+    Page<Comment> findByAuthorId(Long authorId, Pageable pageable);
+    
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.id = :id")
+    Optional<Comment> findWithAuthorById(@Param("id") Long id);
     
     long countByTicketId(Long ticketId);
+    
+    @Query("SELECT COUNT(c) AS commentCount, MAX(c.updatedAt) AS lastUpdatedAt, MAX(a.updatedAt) AS lastAuthorUpdatedAt " +
+           "FROM Comment c JOIN c.author a WHERE c.ticket.id = :ticketId")
+    ListVersion findListVersionByTicketId(@Param("ticketId") Long ticketId);
+    
+    @Query("SELECT c.ticket.id AS ticketId, c.body AS body FROM Comment c WHERE c.ticket.id IN :ticketIds")
+    List<TicketCommentBody> findBodiesByTicketIdIn(@Param("ticketIds") Collection<Long> ticketIds);
+    
+    @Query("SELECT DISTINCT c.ticket.id FROM Comment c WHERE c.updatedAt > :since")
+    List<Long> findTicketIdsUpdatedSince(@Param("since") Instant since);
+    
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.ticket.id = :ticketId " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    Slice<Comment> findByTicketIdForKeyset(@Param("ticketId") Long ticketId, Pageable pageable);
+    
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.ticket.id = :ticketId AND " +
+           "c.createdAt <= :createdAt AND (c.createdAt < :createdAt OR c.id < :id) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    Slice<Comment> findByTicketIdBefore(@Param("ticketId") Long ticketId,
+                                        @Param("createdAt") Instant createdAt,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
 }
@@ -0,0 +1,26 @@
+package org.example.ticketingproject.repository;
+
+import org.example.ticketingproject.entity.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+    
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedBy = :owner, l.lockedUntil = :until " +
+           "WHERE l.name = :name AND (l.lockedBy = :owner OR l.lockedUntil < :now)")
+    int renewOrTake(@Param("name") String name, @Param("owner") String owner,
+                    @Param("now") Instant now, @Param("until") Instant until);
+    
+    // Plain insert rather than save(), which would merge into a row another node just created
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_locks (name, locked_by, locked_until) VALUES (:name, :owner, :until)",
+           nativeQuery = true)
+    int insert(@Param("name") String name, @Param("owner") String owner, @Param("until") Instant until);
+}
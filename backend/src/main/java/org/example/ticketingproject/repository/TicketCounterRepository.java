@@ -0,0 +1,9 @@
+package org.example.ticketingproject.repository;
+
+import org.example.ticketingproject.entity.TicketCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TicketCounterRepository extends JpaRepository<TicketCounter, String> {
+}
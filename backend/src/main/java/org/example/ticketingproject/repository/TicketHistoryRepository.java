@@ -0,0 +1,16 @@
+package org.example.ticketingproject.repository;
+
+import org.example.ticketingproject.entity.TicketHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TicketHistoryRepository extends JpaRepository<TicketHistory, Long> {
+    
+    @Query("SELECT h FROM TicketHistory h WHERE h.ticket.id = :ticketId ORDER BY h.at ASC, h.id ASC")
+    List<TicketHistory> findByTicketId(@Param("ticketId") Long ticketId);
+}
@@ -0,0 +1,16 @@
+package org.example.ticketingproject.repository;
+
+import org.example.ticketingproject.dto.TicketSummaryDto;
+import org.example.ticketingproject.entity.Ticket;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Dynamic ticket queries that return the same {@link TicketSummaryDto} rows as the fixed list
+ * queries in {@link TicketRepository}.
+ */
+public interface TicketQueryRepository {
+    
+    Page<TicketSummaryDto> findSummaries(Specification<Ticket> specification, Pageable pageable);
+}
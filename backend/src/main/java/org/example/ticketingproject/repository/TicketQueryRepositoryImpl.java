@@ -0,0 +1,64 @@
+package org.example.ticketingproject.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.example.ticketingproject.dto.TicketSummaryDto;
+import org.example.ticketingproject.entity.Ticket;
+import org.example.ticketingproject.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+public class TicketQueryRepositoryImpl implements TicketQueryRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public Page<TicketSummaryDto> findSummaries(Specification<Ticket> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TicketSummaryDto> query = cb.createQuery(TicketSummaryDto.class);
+        Root<Ticket> t = query.from(Ticket.class);
+        Join<Ticket, User> o = t.join("owner");
+        Join<Ticket, User> a = t.join("assignee", JoinType.LEFT);
+        query.select(cb.construct(TicketSummaryDto.class,
+            t.get("id"), t.get("code"), t.get("subject"), t.get("status"), t.get("priority"),
+            o.get("id"), o.get("fullName"), o.get("email"), o.get("active"),
+            a.get("id"), a.get("fullName"), a.get("email"), a.get("active"),
+            t.get("closedAt"), t.get("createdAt"), t.get("updatedAt"), t.get("version")));
+        Predicate predicate = specification != null ? specification.toPredicate(t, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), t, cb));
+        
+        List<TicketSummaryDto> content = entityManager.createQuery(query)
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize())
+            .getResultList();
+        // The count is skipped when the page itself shows where the results end
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(specification));
+    }
+    
+    private long count(Specification<Ticket> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Ticket> t = query.from(Ticket.class);
+        query.select(cb.count(t));
+        Predicate predicate = specification != null ? specification.toPredicate(t, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -1,23 +1,71 @@
 package org.example.ticketingproject.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.example.ticketingproject.dto.TicketSummaryDto;
 import org.example.ticketingproject.entity.Ticket;
 import org.example.ticketingproject.entity.TicketStatus;
 import org.example.ticketingproject.entity.TicketPriority;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TicketRepository extends JpaRepository<Ticket, Long> {
+public interface TicketRepository extends JpaRepository<Ticket, Long>, TicketQueryRepository {
+    
+    interface GroupCount {
+        Object getGroupKey();
+        long getTotal();
+    }
+    
+    interface QueuedTicket {
+        Long getId();
+        TicketPriority getPriority();
+        Instant getCreatedAt();
+    }
+    
+    interface VersionStamp {
+        Long getVersion();
+        Instant getUpdatedAt();
+        Instant getOwnerUpdatedAt();
+        Instant getAssigneeUpdatedAt();
+    }
+    
+    String VERSION_SELECT = "SELECT t.version AS version, t.updatedAt AS updatedAt, o.updatedAt AS ownerUpdatedAt, a.updatedAt AS assigneeUpdatedAt " +
+           "FROM Ticket t JOIN t.owner o LEFT JOIN t.assignee a";
+    
+    String SUMMARY_SELECT = "SELECT new org.example.ticketingproject.dto.TicketSummaryDto(" +
+           "t.id, t.code, t.subject, t.status, t.priority, " +
+           "o.id, o.fullName, o.email, o.active, " +
+           "a.id, a.fullName, a.email, a.active, " +
+           "t.closedAt, t.createdAt, t.updatedAt, t.version) " +
+           "FROM Ticket t JOIN t.owner o LEFT JOIN t.assignee a";
     
     Optional<Ticket> findByCode(String code);
     
+    @Query("SELECT t FROM Ticket t JOIN FETCH t.owner LEFT JOIN FETCH t.assignee WHERE t.id = :id")
+    Optional<Ticket> findWithUsersById(@Param("id") Long id);
+    
+    @Query("SELECT t FROM Ticket t JOIN FETCH t.owner LEFT JOIN FETCH t.assignee WHERE t.code = :code")
+    Optional<Ticket> findWithUsersByCode(@Param("code") String code);
+    
+    @Query(VERSION_SELECT + " WHERE t.id = :id")
+    Optional<VersionStamp> findVersionById(@Param("id") Long id);
+    
+    @Query(VERSION_SELECT + " WHERE t.code = :code")
+    Optional<VersionStamp> findVersionByCode(@Param("code") String code);
+    
     boolean existsByCode(String code);
     
     Page<Ticket> findByOwnerId(Long ownerId, Pageable pageable);
@@ -31,22 +79,64 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     @Query("SELECT t FROM Ticket t WHERE t.owner.id = :userId OR t.assignee.id = :userId")
     Page<Ticket> findByUserInvolved(@Param("userId") Long userId, Pageable pageable);
     
-    @Query("SELECT t FROM Ticket t WHERE " +
-           "(:status IS NULL OR t.status = :status) AND " +
-           "(:priority IS NULL OR t.priority = :priority) AND " +
-           "(:ownerId IS NULL OR t.owner.id = :ownerId) AND " +
-           "(:assigneeId IS NULL OR t.assignee.id = :assigneeId)")
-    Page<Ticket> findByFilters(
-        @Param("status") TicketStatus status,
-        @Param("priority") TicketPriority priority,
-        @Param("ownerId") Long ownerId,
-        @Param("assigneeId") Long assigneeId,
-        Pageable pageable
-    );
-    
-    @Query("SELECT t FROM Ticket t WHERE " +
-           "t.subject LIKE %:searchTerm% OR " +
-           "t.description LIKE %:searchTerm% OR " +
-           "t.code LIKE %:searchTerm%")
-    Page<Ticket> searchTickets(@Param("searchTerm") String searchTerm, Pageable pageable);
+    List<Ticket> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    @Query("SELECT t.id FROM Ticket t WHERE t.updatedAt > :since")
+    List<Long> findIdsUpdatedSince(@Param("since") Instant since);
+    
+    @Query("SELECT t.id AS id, t.priority AS priority, t.createdAt AS createdAt FROM Ticket t " +
+           "WHERE t.status = :status AND t.assignee IS NULL")
+    List<QueuedTicket> findUnassignedByStatus(@Param("status") TicketStatus status);
+    
+    @Query("SELECT t.id AS id, t.priority AS priority, t.createdAt AS createdAt FROM Ticket t " +
+           "WHERE t.id = :id AND t.status = :status AND t.assignee IS NULL")
+    Optional<QueuedTicket> findUnassignedById(@Param("id") Long id, @Param("status") TicketStatus status);
+    
+    // Lock timeout -2 is Hibernate's SKIP LOCKED: a row another node is claiming is skipped, not waited on
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT t FROM Ticket t WHERE t.id = :id AND t.status = :status AND t.assignee IS NULL")
+    Optional<Ticket> findClaimable(@Param("id") Long id, @Param("status") TicketStatus status);
+    
+    @Query("SELECT t.status AS groupKey, COUNT(t) AS total FROM Ticket t GROUP BY t.status")
+    List<GroupCount> countGroupedByStatus();
+    
+    @Query("SELECT t.priority AS groupKey, COUNT(t) AS total FROM Ticket t GROUP BY t.priority")
+    List<GroupCount> countGroupedByPriority();
+    
+    @Query("SELECT t.assignee.id AS groupKey, COUNT(t) AS total FROM Ticket t GROUP BY t.assignee.id")
+    List<GroupCount> countGroupedByAssignee();
+    
+    @Query(value = SUMMARY_SELECT,
+           countQuery = "SELECT COUNT(t) FROM Ticket t")
+    Page<TicketSummaryDto> findSummaries(Pageable pageable);
+    
+    @Query(value = SUMMARY_SELECT + " WHERE t.owner.id = :ownerId",
+           countQuery = "SELECT COUNT(t) FROM Ticket t WHERE t.owner.id = :ownerId")
+    Page<TicketSummaryDto> findSummariesByOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
+    
+    @Query(value = SUMMARY_SELECT + " WHERE t.assignee.id = :assigneeId",
+           countQuery = "SELECT COUNT(t) FROM Ticket t WHERE t.assignee.id = :assigneeId")
+    Page<TicketSummaryDto> findSummariesByAssigneeId(@Param("assigneeId") Long assigneeId, Pageable pageable);
+    
+    @Query(value = SUMMARY_SELECT + " WHERE t.status = :status",
+           countQuery = "SELECT COUNT(t) FROM Ticket t WHERE t.status = :status")
+    Page<TicketSummaryDto> findSummariesByStatus(@Param("status") TicketStatus status, Pageable pageable);
+    
+    @Query(value = SUMMARY_SELECT + " WHERE t.priority = :priority",
+           countQuery = "SELECT COUNT(t) FROM Ticket t WHERE t.priority = :priority")
+    Page<TicketSummaryDto> findSummariesByPriority(@Param("priority") TicketPriority priority, Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + " WHERE t.id IN :ids")
+    List<TicketSummaryDto> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query(SUMMARY_SELECT + " ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<TicketSummaryDto> findSummariesForKeyset(Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + " WHERE t.createdAt <= :createdAt AND " +
+           "(t.createdAt < :createdAt OR t.id < :id) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<TicketSummaryDto> findSummariesBefore(@Param("createdAt") Instant createdAt,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
 }
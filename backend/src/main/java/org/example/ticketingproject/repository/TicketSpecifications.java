@@ -0,0 +1,86 @@
+package org.example.ticketingproject.repository;
+
+import org.example.ticketingproject.entity.Ticket;
+import org.example.ticketingproject.entity.TicketPriority;
+import org.example.ticketingproject.entity.TicketStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Ticket filters for {@link TicketQueryRepository}. Each factory returns {@code null} when its
+ * argument is absent, and {@link Specification#allOf} skips nulls, so the generated SQL
+ * contains only the predicates that were actually supplied and the optimizer can pick the index
+ * that matches them.
+ */
+public final class TicketSpecifications {
+    
+    private TicketSpecifications() {
+    }
+    
+    public static Specification<Ticket> statusIn(Collection<TicketStatus> statuses) {
+        if (statuses == null || statuses.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> statuses.size() == 1
+            ? cb.equal(root.get("status"), statuses.iterator().next())
+            : root.get("status").in(statuses);
+    }
+    
+    public static Specification<Ticket> priorityIn(Collection<TicketPriority> priorities) {
+        if (priorities == null || priorities.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> priorities.size() == 1
+            ? cb.equal(root.get("priority"), priorities.iterator().next())
+            : root.get("priority").in(priorities);
+    }
+    
+    public static Specification<Ticket> ownerId(Long ownerId) {
+        if (ownerId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("owner").get("id"), ownerId);
+    }
+    
+    public static Specification<Ticket> assigneeId(Long assigneeId) {
+        if (assigneeId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("assignee").get("id"), assigneeId);
+    }
+    
+    public static Specification<Ticket> unassigned(Boolean unassigned) {
+        if (unassigned == null) {
+            return null;
+        }
+        return (root, query, cb) -> unassigned ? cb.isNull(root.get("assignee")) : cb.isNotNull(root.get("assignee"));
+    }
+    
+    /**
+     * {@code from} inclusive, {@code to} exclusive; either may be null.
+     */
+    public static Specification<Ticket> createdBetween(Instant from, Instant to) {
+        return between("createdAt", from, to);
+    }
+    
+    public static Specification<Ticket> closedBetween(Instant from, Instant to) {
+        return between("closedAt", from, to);
+    }
+    
+    private static Specification<Ticket> between(String attribute, Instant from, Instant to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (from == null) {
+                return cb.lessThan(root.get(attribute), to);
+            }
+            if (to == null) {
+                return cb.greaterThanOrEqualTo(root.get(attribute), from);
+            }
+            return cb.and(cb.greaterThanOrEqualTo(root.get(attribute), from), cb.lessThan(root.get(attribute), to));
+        };
+    }
+}
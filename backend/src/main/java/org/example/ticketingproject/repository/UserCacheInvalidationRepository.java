@@ -0,0 +1,24 @@
+package org.example.ticketingproject.repository;
+
+import org.example.ticketingproject.entity.UserCacheInvalidation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface UserCacheInvalidationRepository extends JpaRepository<UserCacheInvalidation, Long> {
+    
+    @Query("SELECT DISTINCT i.userId FROM UserCacheInvalidation i WHERE i.createdAt >= :since")
+    List<Long> findUserIdsCreatedSince(@Param("since") Instant since);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UserCacheInvalidation i WHERE i.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") Instant before);
+}
@@ -1,26 +1,54 @@
 package org.example.ticketingproject.repository;
 
+import org.example.ticketingproject.entity.RoleName;
 import org.example.ticketingproject.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
+    interface UserRoleName {
+        Long getUserId();
+        RoleName getRoleName();
+    }
+    
     Optional<User> findByEmail(String email);
     
     boolean existsByEmail(String email);
     
-    List<User> findByActiveTrue();
+    Page<User> findByActiveTrue(Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.passwordHash = :newHash WHERE u.id = :id AND u.passwordHash = :oldHash")
+    int updatePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+    
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findEmailsByEmailIn(@Param("emails") Collection<String> emails);
+    
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT u.id AS userId, r.name AS roleName FROM User u JOIN u.roles r WHERE u.id IN :ids")
+    List<UserRoleName> findRoleNamesByUserIdIn(@Param("ids") Collection<Long> ids);
     
     @Query("SELECT u FROM User u JOIN u.roles r WHERE r.name = :roleName")
     List<User> findByRoleName(@Param("roleName") String roleName);
     
     @Query("SELECT u FROM User u WHERE u.fullName LIKE %:searchTerm% OR u.email LIKE %:searchTerm%")
     List<User> searchUsers(@Param("searchTerm") String searchTerm);
+    
+    // Prefix match so both columns can use their index; case-insensitive under the default MySQL collation
+    @Query("SELECT u FROM User u WHERE u.active = true AND (u.fullName LIKE :prefix ESCAPE '\\' OR u.email LIKE :prefix ESCAPE '\\')")
+    Slice<User> searchActiveByPrefix(@Param("prefix") String prefix, Pageable pageable);
 }
@@ -0,0 +1,183 @@
+package org.example.ticketingproject.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.example.ticketingproject.entity.TicketPriority;
+import org.example.ticketingproject.entity.TicketStatus;
+import org.example.ticketingproject.repository.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Open, unassigned tickets waiting for an agent, ordered by SLA deadline (creation time plus the
+ * SLA of the ticket's priority), so an old LOW ticket eventually outranks a fresh HIGH one.
+ * <p>
+ * Each priority has its own lock-free skip list in creation order; since all entries of a list
+ * share an SLA, the next ticket is the head with the earliest deadline. {@link TicketService}
+ * keeps the lists current after each commit, and they are rebuilt from the database at startup
+ * and every {@code ticketing.queue.refresh-interval-ms} to pick up other nodes' changes. An entry
+ * is only a candidate: the claim itself locks and re-checks the row, so nodes never hand out the
+ * same ticket twice.
+ */
+@Service
+public class AgentWorkQueue {
+    
+    private static final Logger log = LoggerFactory.getLogger(AgentWorkQueue.class);
+    
+    private static final Comparator<Entry> CREATION_ORDER =
+        Comparator.comparing(Entry::createdAt).thenComparing(Entry::ticketId);
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${ticketing.queue.sla.urgent:1h}")
+    private Duration urgentSla;
+    
+    @Value("${ticketing.queue.sla.high:4h}")
+    private Duration highSla;
+    
+    @Value("${ticketing.queue.sla.medium:1d}")
+    private Duration mediumSla;
+    
+    @Value("${ticketing.queue.sla.low:3d}")
+    private Duration lowSla;
+    
+    private final Map<TicketPriority, ConcurrentSkipListSet<Entry>> queues = new EnumMap<>(TicketPriority.class);
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    void init() {
+        for (TicketPriority priority : TicketPriority.values()) {
+            ConcurrentSkipListSet<Entry> queue = new ConcurrentSkipListSet<>(CREATION_ORDER);
+            queues.put(priority, queue);
+            Gauge.builder("ticketing.queue.size", queue, ConcurrentSkipListSet::size)
+                .description("Open unassigned tickets waiting for an agent")
+                .tag("priority", priority.name())
+                .register(meterRegistry);
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${ticketing.queue.refresh-interval-ms:30000}",
+               fixedDelayString = "${ticketing.queue.refresh-interval-ms:30000}")
+    public void rebuild() {
+        List<TicketRepository.QueuedTicket> open = ticketRepository.findUnassignedByStatus(TicketStatus.OPEN);
+        Map<Long, Entry> loaded = new HashMap<>();
+        for (TicketRepository.QueuedTicket ticket : open) {
+            loaded.put(ticket.getId(), new Entry(ticket.getId(), ticket.getPriority(), ticket.getCreatedAt()));
+        }
+        // Tickets this node changed meanwhile are corrected by the next change or refresh
+        entries.keySet().removeIf(id -> !loaded.containsKey(id));
+        queues.values().forEach(queue -> queue.removeIf(entry -> !loaded.containsKey(entry.ticketId())));
+        loaded.values().forEach(this::add);
+        log.debug("Agent work queue rebuilt with {} tickets", loaded.size());
+    }
+    
+    /** Brings the queue in line with a ticket's state once the current transaction commits. */
+    public void ticketChanged(Long ticketId, TicketStatus status, TicketPriority priority, Long assigneeId, Instant createdAt) {
+        TransactionHooks.afterCommit(() -> {
+            remove(ticketId);
+            if (status == TicketStatus.OPEN && assigneeId == null) {
+                add(new Entry(ticketId, priority, createdAt != null ? createdAt : Instant.now()));
+            }
+        });
+    }
+    
+    public void ticketRemoved(Long ticketId) {
+        TransactionHooks.afterCommit(() -> remove(ticketId));
+    }
+    
+    /**
+     * Removes and returns the id of the ticket with the earliest SLA deadline, or null if the
+     * queue is empty. Concurrent callers never receive the same id. Called inside a transaction,
+     * the ticket is put back if that transaction rolls back.
+     */
+    public Long poll() {
+        while (true) {
+            Entry next = null;
+            ConcurrentSkipListSet<Entry> nextQueue = null;
+            for (ConcurrentSkipListSet<Entry> queue : queues.values()) {
+                Entry head = first(queue);
+                if (head != null && (next == null || deadline(head).isBefore(deadline(next)))) {
+                    next = head;
+                    nextQueue = queue;
+                }
+            }
+            if (next == null) {
+                return null;
+            }
+            if (nextQueue.remove(next)) {
+                entries.remove(next.ticketId(), next);
+                Entry polled = next;
+                TransactionHooks.afterRollback(() -> restore(polled));
+                return next.ticketId();
+            }
+            // Another caller took this head first
+        }
+    }
+    
+    private void add(Entry entry) {
+        Entry previous = entries.put(entry.ticketId(), entry);
+        if (previous != null && !previous.equals(entry)) {
+            queues.get(previous.priority()).remove(previous);
+        }
+        queues.get(entry.priority()).add(entry);
+    }
+    
+    private void restore(Entry entry) {
+        // Unless the ticket was queued again meanwhile
+        if (entries.putIfAbsent(entry.ticketId(), entry) == null) {
+            queues.get(entry.priority()).add(entry);
+        }
+    }
+    
+    private void remove(Long ticketId) {
+        Entry entry = entries.remove(ticketId);
+        if (entry != null) {
+            queues.get(entry.priority()).remove(entry);
+        }
+    }
+    
+    private Instant deadline(Entry entry) {
+        return entry.createdAt().plus(sla(entry.priority()));
+    }
+    
+    private Duration sla(TicketPriority priority) {
+        return switch (priority) {
+            case URGENT -> urgentSla;
+            case HIGH -> highSla;
+            case MEDIUM -> mediumSla;
+            case LOW -> lowSla;
+        };
+    }
+    
+    private static Entry first(ConcurrentSkipListSet<Entry> queue) {
+        // first() throws when a concurrent poll empties the set; the iterator just ends
+        Iterator<Entry> iterator = queue.iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+    
+    private record Entry(Long ticketId, TicketPriority priority, Instant createdAt) {
+    }
+}
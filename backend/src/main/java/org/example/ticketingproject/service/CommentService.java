@@ -2,15 +2,23 @@ package org.example.ticketingproject.service;
 
 import org.example.ticketingproject.dto.CommentDto;
 import org.example.ticketingproject.dto.CreateCommentDto;
+import org.example.ticketingproject.dto.CursorPageDto;
+import org.example.ticketingproject.dto.TicketEventDto;
+import org.example.ticketingproject.dto.UserDto;
 import org.example.ticketingproject.entity.Comment;
 import org.example.ticketingproject.entity.Ticket;
 import org.example.ticketingproject.entity.User;
 import org.example.ticketingproject.repository.CommentRepository;
 import org.example.ticketingproject.repository.TicketRepository;
 import org.example.ticketingproject.repository.UserRepository;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,49 +38,85 @@ public class CommentService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private TicketSearchService ticketSearchService;
+    
+    @Autowired
+    private UserCacheService userCacheService;
+    
+    @Autowired
+    private TicketEventBus ticketEventBus;
+    
     public CommentDto createComment(CreateCommentDto createCommentDto, Long authorId) {
         Ticket ticket = ticketRepository.findById(createCommentDto.getTicketId())
             .orElseThrow(() -> new RuntimeException("Ticket not found with id: " + createCommentDto.getTicketId()));
         
-        User author = userRepository.findById(authorId)
-            .orElseThrow(() -> new RuntimeException("Author not found with id: " + authorId));
+        try {
+            userCacheService.getUser(authorId);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Author not found with id: " + authorId);
+        }
         
         Comment comment = new Comment();
         comment.setTicket(ticket);
-        comment.setAuthor(author);
+        comment.setAuthor(userRepository.getReferenceById(authorId));
         comment.setBody(createCommentDto.getBody());
         
         Comment savedComment = commentRepository.save(comment);
+        ticketSearchService.reindexAfterCommit(ticket.getId());
+        ticketEventBus.publishCommentEvent(TicketEventDto.Type.COMMENT_CREATED, ticket, savedComment.getId());
         return convertToDto(savedComment);
     }
     
+    @Transactional(readOnly = true)
     public CommentDto getCommentById(Long id) {
-        Comment comment = commentRepository.findById(id)
+        Comment comment = commentRepository.findWithAuthorById(id)
             .orElseThrow(() -> new RuntimeException("Comment not found with id: " + id));
         return convertToDto(comment);
     }
     
-    public List<CommentDto> getCommentsByTicketId(Long ticketId) {
-        return commentRepository.findByTicketIdOrderByCreatedAtDesc(ticketId)
-            .stream()
-            .map(this::convertToDto)
-            .collect(Collectors.toList());
+    /** Strong ETag of a single comment: its version plus its author's row, which the body embeds. */
+    public ResourceVersion versionOf(CommentDto comment) {
+        return ResourceVersion.ofEntity(comment.getVersion(), comment.getUpdatedAt(), comment.getAuthor().getUpdatedAt());
     }
     
+    @Transactional(readOnly = true)
+    public ResourceVersion getCommentListVersion(Long ticketId) {
+        // The count catches deletions, which leave no newer updatedAt behind
+        CommentRepository.ListVersion version = commentRepository.findListVersionByTicketId(ticketId);
+        return ResourceVersion.of(version.getCommentCount(), version.getLastUpdatedAt(), version.getLastAuthorUpdatedAt());
+    }
+    
+    @Transactional(readOnly = true)
     public Page<CommentDto> getCommentsByTicketId(Long ticketId, Pageable pageable) {
-        return commentRepository.findByTicketId(ticketId, pageable).map(this::convertToDto);
+        Page<Comment> page = commentRepository.findByTicketId(ticketId, pageable);
+        return new PageImpl<>(convertToDtos(page.getContent()), page.getPageable(), page.getTotalElements());
     }
     
-    public List<CommentDto> getCommentsByAuthorId(Long authorId) {
-        return commentRepository.findByAuthorIdOrderByCreatedAtDesc(authorId)
-            .stream()
-            .map(this::convertToDto)
-            .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPageDto<CommentDto> getCommentsByTicketIdAfter(Long ticketId, String after, int limit) {
+        Pageable pageable = PageRequest.of(0, limit);
+        Slice<Comment> slice;
+        if (after == null || after.isBlank()) {
+            slice = commentRepository.findByTicketIdForKeyset(ticketId, pageable);
+        } else {
+            KeysetCursor cursor = KeysetCursor.decode(after);
+            slice = commentRepository.findByTicketIdBefore(ticketId, cursor.getCreatedAt(), cursor.getId(), pageable);
+        }
+        Slice<CommentDto> dtos = new SliceImpl<>(convertToDtos(slice.getContent()), slice.getPageable(), slice.hasNext());
+        return KeysetCursor.toPage(dtos, CommentDto::getCreatedAt, CommentDto::getId);
     }
     
-    public CommentDto updateComment(Long id, String newBody, Long authorId) {
-        Comment comment = commentRepository.findById(id)
+    @Transactional(readOnly = true)
+    public Page<CommentDto> getCommentsByAuthorId(Long authorId, Pageable pageable) {
+        Page<Comment> page = commentRepository.findByAuthorId(authorId, pageable);
+        return new PageImpl<>(convertToDtos(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+    
+    public CommentDto updateComment(Long id, String newBody, Long authorId, Long expectedVersion) {
+        Comment comment = commentRepository.findWithAuthorById(id)
             .orElseThrow(() -> new RuntimeException("Comment not found with id: " + id));
+        OptimisticRetry.requireVersion(comment.getVersion(), expectedVersion, "Comment", id);
         
         // Check if the user is the author of the comment
         if (!comment.getAuthor().getId().equals(authorId)) {
@@ -80,7 +124,10 @@ public class CommentService {
         }
         
         comment.setBody(newBody);
-        Comment savedComment = commentRepository.save(comment);
+        // Flushed so the response carries the new version and updatedAt for the next If-Match
+        Comment savedComment = commentRepository.saveAndFlush(comment);
+        ticketSearchService.reindexAfterCommit(comment.getTicket().getId());
+        ticketEventBus.publishCommentEvent(TicketEventDto.Type.COMMENT_UPDATED, comment.getTicket(), id);
         return convertToDto(savedComment);
     }
     
@@ -94,29 +141,44 @@ public class CommentService {
         }
         
         commentRepository.deleteById(id);
+        ticketSearchService.reindexAfterCommit(comment.getTicket().getId());
+        ticketEventBus.publishCommentEvent(TicketEventDto.Type.COMMENT_DELETED, comment.getTicket(), id);
     }
     
+    @Transactional(readOnly = true)
     public long getCommentCountByTicketId(Long ticketId) {
         return commentRepository.countByTicketId(ticketId);
     }
     
+    private List<CommentDto> convertToDtos(List<Comment> comments) {
+        // Authors are fetched with the comments, the same rows the list ETag is computed from
+        return comments.stream()
+            .map(this::convertToDto)
+            .collect(Collectors.toList());
+    }
+    
     private CommentDto convertToDto(Comment comment) {
+        return convertToDto(comment, convertUserToDto(comment.getAuthor()));
+    }
+    
+    private CommentDto convertToDto(Comment comment, UserDto author) {
         CommentDto dto = new CommentDto();
         dto.setId(comment.getId());
         dto.setBody(comment.getBody());
         dto.setTicketId(comment.getTicket().getId());
-        dto.setAuthor(convertUserToDto(comment.getAuthor()));
+        dto.setAuthor(author);
         dto.setCreatedAt(comment.getCreatedAt());
         dto.setUpdatedAt(comment.getUpdatedAt());
+        dto.setVersion(comment.getVersion());
         return dto;
     }
     
-    private org.example.ticketingproject.dto.UserDto convertUserToDto(User user) {
-        org.example.ticketingproject.dto.UserDto userDto = new org.example.ticketingproject.dto.UserDto();
-        userDto.setId(user.getId());
-        userDto.setFullName(user.getFullName());
-        userDto.setEmail(user.getEmail());
-        userDto.setActive(user.isActive());
-        return userDto;
+    private UserDto convertUserToDto(User user) {
+        // A fetched author row is used as read so the body matches the ETag; a bare proxy (a comment
+        // just created) is served from the user cache instead of being initialized
+        if (Hibernate.isInitialized(user)) {
+            return UserCacheService.toSummary(user);
+        }
+        return userCacheService.getUser(user.getId());
     }
 }
@@ -0,0 +1,60 @@
+package org.example.ticketingproject.service;
+
+import org.example.ticketingproject.dto.CursorPageDto;
+import org.springframework.data.domain.Slice;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Position in a (createdAt DESC, id DESC) ordered listing. Serialized as an
+ * opaque url-safe token so clients cannot build cursors by hand.
+ */
+public final class KeysetCursor {
+    
+    private final Instant createdAt;
+    private final Long id;
+    
+    private KeysetCursor(Instant createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+    
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public static String encode(Instant createdAt, Long id) {
+        String raw = createdAt.toString() + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(',');
+            return new KeysetCursor(Instant.parse(raw.substring(0, separator)),
+                Long.valueOf(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+    }
+    
+    public static <T> CursorPageDto<T> toPage(Slice<T> slice, Function<T, Instant> createdAt, Function<T, Long> id) {
+        CursorPageDto<T> page = new CursorPageDto<>();
+        page.setContent(slice.getContent());
+        page.setSize(slice.getNumberOfElements());
+        page.setHasNext(slice.hasNext());
+        if (slice.hasNext()) {
+            T last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            page.setNextCursor(encode(createdAt.apply(last), id.apply(last)));
+        }
+        return page;
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.ticketingproject.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Re-runs an idempotent change in a fresh transaction when it loses an optimistic-lock race,
+ * up to {@code ticketing.retry.max-attempts} times with a short randomized backoff. Only for
+ * operations whose outcome does not depend on the state the client saw, such as "set status
+ * to X"; edits based on a client's copy must surface the conflict instead.
+ */
+@Component
+public class OptimisticRetry {
+    
+    private static final Logger log = LoggerFactory.getLogger(OptimisticRetry.class);
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${ticketing.retry.max-attempts:3}")
+    private int maxAttempts;
+    
+    @Value("${ticketing.retry.backoff-ms:20}")
+    private long backoffMillis;
+    
+    /** Rejects a change made against a version other than the current one, e.g. from If-Match. */
+    public static void requireVersion(Long current, Long expected, String entity, Long id) {
+        if (expected != null && !expected.equals(current)) {
+            throw new ObjectOptimisticLockingFailureException(
+                entity + " " + id + " is at version " + current + ", not " + expected, null);
+        }
+    }
+    
+    public void run(Runnable action) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transaction.executeWithoutResult(status -> action.run());
+                return;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("Optimistic lock conflict, retrying (attempt {} of {})", attempt + 1, maxAttempts);
+                backoff(attempt);
+            }
+        }
+    }
+    
+    private void backoff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMillis * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while retrying", e);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.ticketingproject.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.ticketingproject.exception.ServiceOverloadedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hashing on a small dedicated pool instead of request threads. Hashing is slow
+ * on purpose (around 100 ms of CPU for BCrypt cost 10), so callers hash before opening a
+ * transaction and never hold a pooled connection meanwhile. The queue is bounded: when it is
+ * full, requests are turned away instead of piling up behind each other.
+ */
+@Service
+public class PasswordHashingService {
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${ticketing.password.hash-threads:0}")
+    private int hashThreads;
+    
+    @Value("${ticketing.password.queue-capacity:100}")
+    private int queueCapacity;
+    
+    private final AtomicInteger hasherCount = new AtomicInteger();
+    
+    private ThreadPoolExecutor hashers;
+    private Timer encodeTimer;
+    private Timer matchTimer;
+    private String dummyHash;
+    
+    @PostConstruct
+    void init() {
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        hashers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "password-hasher-" + hasherCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        encodeTimer = Timer.builder("ticketing.password.hash")
+            .description("Time spent computing password hashes, excluding queueing")
+            .tag("operation", "encode")
+            .register(meterRegistry);
+        matchTimer = Timer.builder("ticketing.password.hash")
+            .description("Time spent computing password hashes, excluding queueing")
+            .tag("operation", "match")
+            .register(meterRegistry);
+        Gauge.builder("ticketing.password.hash.queue", hashers, pool -> pool.getQueue().size())
+            .description("Password hashing requests waiting for a hasher thread")
+            .register(meterRegistry);
+        dummyHash = passwordEncoder.encode("not a real password");
+    }
+    
+    public String encode(String rawPassword) {
+        return run(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+    
+    /**
+     * Hashes many passwords at once, spread over the hasher threads. Each thread takes one
+     * contiguous slice, so a large import occupies only a few queue slots.
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        int slices = Math.min(hashers.getMaximumPoolSize(), rawPasswords.size());
+        List<Future<List<String>>> futures = new ArrayList<>(slices);
+        for (int slice = 0; slice < slices; slice++) {
+            List<String> part = rawPasswords.subList(
+                slice * rawPasswords.size() / slices, (slice + 1) * rawPasswords.size() / slices);
+            futures.add(submit(() -> {
+                List<String> hashes = new ArrayList<>(part.size());
+                for (String rawPassword : part) {
+                    hashes.add(encodeTimer.recordCallable(() -> passwordEncoder.encode(rawPassword)));
+                }
+                return hashes;
+            }));
+        }
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        for (Future<List<String>> future : futures) {
+            hashes.addAll(await(future));
+        }
+        return hashes;
+    }
+    
+    /**
+     * Checks a password against a stored hash. With no stored hash (unknown account) a dummy one
+     * is checked instead, so a miss takes as long as a wrong password.
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        boolean known = encodedPassword != null;
+        boolean matches = run(matchTimer, () -> passwordEncoder.matches(rawPassword, known ? encodedPassword : dummyHash));
+        return known && matches;
+    }
+    
+    /** Whether a hash was made with another algorithm or a lower cost than the current settings. */
+    public boolean needsUpgrade(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+    
+    private <T> T run(Timer timer, Callable<T> task) {
+        return await(submit(() -> timer.recordCallable(task)));
+    }
+    
+    private <T> Future<T> submit(Callable<T> task) {
+        try {
+            return hashers.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceOverloadedException("Too many password operations in progress, try again later", 1);
+        }
+    }
+    
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while hashing password");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Password hashing failed", e.getCause());
+        }
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        hashers.shutdownNow();
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.ticketingproject.service;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks work on the current thread that must read from the primary database even inside a
+ * read-only transaction, e.g. reads of rows this process has just committed. Only has an effect
+ * when read replicas are configured.
+ */
+public final class ReadRouting {
+    
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = ThreadLocal.withInitial(() -> Boolean.FALSE);
+    
+    private ReadRouting() {
+    }
+    
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get();
+    }
+    
+    /** Requires the primary until {@link #restore} is called; returns the previous setting. */
+    public static boolean requirePrimary() {
+        boolean previous = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        return previous;
+    }
+    
+    public static void restore(boolean previous) {
+        if (previous) {
+            PRIMARY_REQUIRED.set(Boolean.TRUE);
+        } else {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+    
+    public static <T> T onPrimary(Supplier<T> action) {
+        boolean previous = requirePrimary();
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+}
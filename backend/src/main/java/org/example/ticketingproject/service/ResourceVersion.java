@@ -0,0 +1,71 @@
+package org.example.ticketingproject.service;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Validator pair for conditional GETs, derived from {@code updatedAt} columns (and a row count
+ * for collections) instead of the response body, so a 304 can be answered without loading or
+ * serializing the resource.
+ * <p>
+ * Collection ETags are weak: they identify the data, not the exact bytes (field filtering,
+ * compression and format negotiation all change the bytes). If-None-Match uses weak comparison,
+ * so strong tags sent by clients still match. Single entities get a strong tag that starts with
+ * their {@code version}, so the tag a client was given can be sent back in {@code If-Match}.
+ */
+public final class ResourceVersion {
+    
+    private final String etag;
+    private final Instant lastModified;
+    
+    private ResourceVersion(String etag, Instant lastModified) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+    
+    public static ResourceVersion of(long count, Instant... timestamps) {
+        String tag = Long.toString(count, 36) + "-" + stamps(timestamps);
+        return new ResourceVersion("W/\"" + tag + "\"", latest(timestamps));
+    }
+    
+    /**
+     * Strong tag {@code "<version>-<related stamps>"} for one entity: its {@code version} plus the
+     * {@code updatedAt} of the rows embedded in its body (e.g. a ticket's owner and assignee).
+     */
+    public static ResourceVersion ofEntity(long version, Instant updatedAt, Instant... related) {
+        Instant[] timestamps = Arrays.copyOf(related, related.length + 1);
+        timestamps[related.length] = updatedAt;
+        return new ResourceVersion("\"" + version + "-" + stamps(related) + "\"", latest(timestamps));
+    }
+    
+    private static String stamps(Instant... timestamps) {
+        return Arrays.stream(timestamps)
+            .map(ts -> ts != null ? Long.toString(ts.getEpochSecond(), 36) + "." + Long.toString(ts.getNano(), 36) : "0")
+            .collect(Collectors.joining("-"));
+    }
+    
+    private static Instant latest(Instant... timestamps) {
+        return Arrays.stream(timestamps)
+            .filter(Objects::nonNull)
+            .max(Instant::compareTo)
+            .orElse(null);
+    }
+    
+    public String getEtag() {
+        return etag;
+    }
+    
+    public Instant getLastModified() {
+        return lastModified;
+    }
+    
+    /**
+     * Epoch millis for {@code WebRequest.checkNotModified}, or -1 (no Last-Modified) when there
+     * are no timestamps, e.g. an empty comment list.
+     */
+    public long getLastModifiedMillis() {
+        return lastModified != null ? lastModified.toEpochMilli() : -1;
+    }
+}
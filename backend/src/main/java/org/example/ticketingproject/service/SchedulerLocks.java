@@ -0,0 +1,49 @@
+package org.example.ticketingproject.service;
+
+import org.example.ticketingproject.repository.SchedulerLockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Elects a single node for a scheduled job through a lease row in {@code scheduler_locks}.
+ * A node that keeps running the job keeps renewing its lease; another node takes over only
+ * once the lease has expired.
+ */
+@Service
+public class SchedulerLocks {
+    
+    private final String owner = UUID.randomUUID().toString();
+    
+    @Autowired
+    private SchedulerLockRepository schedulerLockRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    /** True if this node holds {@code name} for the next {@code lease}, taking or renewing it. */
+    public boolean tryAcquire(String name, Duration lease) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Instant now = Instant.now();
+        try {
+            return Boolean.TRUE.equals(transaction.execute(status -> {
+                if (schedulerLockRepository.renewOrTake(name, owner, now, now.plus(lease)) > 0) {
+                    return true;
+                }
+                return !schedulerLockRepository.existsById(name)
+                    && schedulerLockRepository.insert(name, owner, now.plus(lease)) > 0;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the lease row first
+            return false;
+        }
+    }
+}
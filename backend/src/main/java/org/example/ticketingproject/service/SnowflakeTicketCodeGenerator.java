@@ -0,0 +1,106 @@
+package org.example.ticketingproject.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style generator: 41 bits of milliseconds since {@link #EPOCH}, 10 bits of node id
+ * and a 12 bit per-millisecond counter, rendered in base 36 behind the {@code TKT} prefix.
+ * <p>
+ * Codes are unique across nodes as long as every node runs with a distinct
+ * {@code ticketing.code.node-id}; with the {@code prod} profile active the id must be set
+ * explicitly, elsewhere it defaults to 0. The last issued (timestamp, counter) pair lives in a single
+ * {@link AtomicLong} updated by CAS, so callers never block. When the counter overflows, or the
+ * clock steps backwards, the generator borrows the next millisecond instead of waiting.
+ */
+@Component
+public class SnowflakeTicketCodeGenerator implements TicketCodeGenerator {
+    
+    private static final Logger log = LoggerFactory.getLogger(SnowflakeTicketCodeGenerator.class);
+    
+    static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    
+    private static final String PREFIX = "TKT";
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int CODE_WIDTH = Long.toString(Long.MAX_VALUE, 36).length();
+    
+    private final long nodeId;
+    private final LongSupplier clock;
+    private final AtomicLong lastState = new AtomicLong();
+    
+    @Autowired
+    public SnowflakeTicketCodeGenerator(@Value("${ticketing.code.node-id:#{null}}") Long nodeId, Environment environment) {
+        this(resolveNodeId(nodeId, environment));
+    }
+    
+    public SnowflakeTicketCodeGenerator(long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+    
+    SnowflakeTicketCodeGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("ticketing.code.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+    
+    static long resolveNodeId(Long nodeId, Environment environment) {
+        if (nodeId != null) {
+            return nodeId;
+        }
+        // Two instances sharing an id can issue the same code in the same millisecond
+        if (environment.acceptsProfiles(Profiles.of("prod"))) {
+            throw new IllegalStateException("ticketing.code.node-id must be set to an id unique to this instance (0-"
+                + MAX_NODE_ID + ") when the prod profile is active");
+        }
+        log.warn("ticketing.code.node-id is not set, using 0; give every instance its own id before running more than one");
+        return 0;
+    }
+    
+    @Override
+    public String nextCode() {
+        String id = Long.toString(nextId(), 36).toUpperCase();
+        StringBuilder code = new StringBuilder(PREFIX.length() + CODE_WIDTH).append(PREFIX);
+        for (int i = id.length(); i < CODE_WIDTH; i++) {
+            code.append('0');
+        }
+        return code.append(id).toString();
+    }
+    
+    long nextId() {
+        while (true) {
+            long now = clock.getAsLong() - EPOCH;
+            long last = lastState.get();
+            long lastTimestamp = last >>> SEQUENCE_BITS;
+            long timestamp;
+            long sequence;
+            if (now > lastTimestamp) {
+                timestamp = now;
+                sequence = 0;
+            } else {
+                timestamp = lastTimestamp;
+                sequence = (last & SEQUENCE_MASK) + 1;
+                if (sequence > SEQUENCE_MASK) {
+                    timestamp++;
+                    sequence = 0;
+                }
+            }
+            if (lastState.compareAndSet(last, (timestamp << SEQUENCE_BITS) | sequence)) {
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+            }
+        }
+    }
+}
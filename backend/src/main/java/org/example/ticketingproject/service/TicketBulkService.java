@@ -0,0 +1,271 @@
+package org.example.ticketingproject.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.example.ticketingproject.dto.BulkCreateTicketDto;
+import org.example.ticketingproject.dto.BulkItemResultDto;
+import org.example.ticketingproject.dto.BulkResultDto;
+import org.example.ticketingproject.entity.TicketPriority;
+import org.example.ticketingproject.entity.TicketStatus;
+import org.example.ticketingproject.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * High-volume ticket creation for alert and email ingest.
+ * <p>
+ * Items are processed in chunks of {@code ticketing.bulk.batch-size}: every owner and assignee in
+ * a chunk is resolved with one IN query, and the valid rows are written with a single JDBC batch
+ * insert in their own transaction, bypassing per-entity IDENTITY inserts. Invalid items are
+ * reported per index and never fail the rest of the request.
+ */
+@Service
+public class TicketBulkService {
+    
+    private static final Logger log = LoggerFactory.getLogger(TicketBulkService.class);
+    
+    private static final String INSERT_TICKET_SQL =
+        "INSERT INTO tickets (code, subject, description, status, priority, owner_id, assignee_id, " +
+        "created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private TicketCodeGenerator ticketCodeGenerator;
+    
+    @Autowired
+    private TicketSearchService ticketSearchService;
+    
+    @Autowired
+    private TicketCounterService ticketCounterService;
+    
+    @Autowired
+    private TicketEventBus ticketEventBus;
+    
+    @Autowired
+    private AgentWorkQueue agentWorkQueue;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${ticketing.bulk.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${ticketing.bulk.max-items:10000}")
+    private int maxItems;
+    
+    public BulkResultDto createTickets(List<BulkCreateTicketDto> items) {
+        if (items.size() > maxItems) {
+            throw new RuntimeException("Bulk request exceeds the limit of " + maxItems + " tickets; use the NDJSON variant");
+        }
+        long started = System.nanoTime();
+        BulkResultDto result = new BulkResultDto();
+        for (int from = 0; from < items.size(); from += batchSize) {
+            List<BulkCreateTicketDto> chunk = items.subList(from, Math.min(from + batchSize, items.size()));
+            List<Integer> indexes = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                indexes.add(from + i);
+            }
+            processChunk(chunk, indexes, result);
+        }
+        return finish(result, started);
+    }
+    
+    public BulkResultDto createTickets(InputStream ndjson) throws IOException {
+        long started = System.nanoTime();
+        BulkResultDto result = new BulkResultDto();
+        List<BulkCreateTicketDto> chunk = new ArrayList<>(batchSize);
+        List<Integer> indexes = new ArrayList<>(batchSize);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+        int index = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                chunk.add(objectMapper.readValue(line, BulkCreateTicketDto.class));
+                indexes.add(index);
+            } catch (JsonProcessingException e) {
+                result.getResults().add(new BulkItemResultDto(index, null, null, "Malformed JSON: " + e.getOriginalMessage()));
+            }
+            index++;
+            if (chunk.size() == batchSize) {
+                processChunk(chunk, indexes, result);
+                chunk.clear();
+                indexes.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, indexes, result);
+        }
+        result.setReceived(index);
+        return finish(result, started);
+    }
+    
+    private void processChunk(List<BulkCreateTicketDto> chunk, List<Integer> indexes, BulkResultDto result) {
+        Set<Long> userIds = new HashSet<>();
+        for (BulkCreateTicketDto item : chunk) {
+            if (item.getOwnerId() != null) {
+                userIds.add(item.getOwnerId());
+            }
+            if (item.getAssigneeId() != null) {
+                userIds.add(item.getAssigneeId());
+            }
+        }
+        Set<Long> existingUserIds = userIds.isEmpty() ? Set.of() : new HashSet<>(userRepository.findIdsByIdIn(userIds));
+        
+        List<BulkCreateTicketDto> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            BulkCreateTicketDto item = chunk.get(i);
+            String error = validate(item, existingUserIds);
+            if (error != null) {
+                result.getResults().add(new BulkItemResultDto(indexes.get(i), null, null, error));
+            } else {
+                accepted.add(item);
+                acceptedIndexes.add(indexes.get(i));
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+        
+        List<String> codes = accepted.stream().map(item -> ticketCodeGenerator.nextCode()).collect(Collectors.toList());
+        try {
+            List<Long> ids = new TransactionTemplate(transactionManager).execute(status -> {
+                Instant createdAt = Instant.now();
+                List<Long> insertedIds = insertBatch(accepted, codes, createdAt);
+                ticketSearchService.reindexAfterCommit(insertedIds);
+                for (int i = 0; i < accepted.size(); i++) {
+                    BulkCreateTicketDto item = accepted.get(i);
+                    ticketCounterService.recordCreated(TicketStatus.OPEN, parsePriority(item.getPriority()), item.getAssigneeId());
+                    ticketEventBus.publishTicketCreated(insertedIds.get(i), codes.get(i), parsePriority(item.getPriority()),
+                        item.getAssigneeId());
+                    agentWorkQueue.ticketChanged(insertedIds.get(i), TicketStatus.OPEN, parsePriority(item.getPriority()),
+                        item.getAssigneeId(), createdAt);
+                }
+                return insertedIds;
+            });
+            for (int i = 0; i < accepted.size(); i++) {
+                result.getResults().add(new BulkItemResultDto(acceptedIndexes.get(i), ids.get(i), codes.get(i), null));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Bulk ticket batch of {} items failed", accepted.size(), e);
+            for (Integer index : acceptedIndexes) {
+                result.getResults().add(new BulkItemResultDto(index, null, null, "Batch insert failed: " + e.getMessage()));
+            }
+        }
+    }
+    
+    private String validate(BulkCreateTicketDto item, Set<Long> existingUserIds) {
+        Set<ConstraintViolation<BulkCreateTicketDto>> violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+        }
+        if (!existingUserIds.contains(item.getOwnerId())) {
+            return "Owner not found with id: " + item.getOwnerId();
+        }
+        if (item.getAssigneeId() != null && !existingUserIds.contains(item.getAssigneeId())) {
+            return "Assignee not found with id: " + item.getAssigneeId();
+        }
+        return null;
+    }
+    
+    private List<Long> insertBatch(List<BulkCreateTicketDto> items, List<String> codes, Instant createdAt) {
+        OffsetDateTime now = createdAt.atOffset(ZoneOffset.UTC);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            connection -> connection.prepareStatement(INSERT_TICKET_SQL, new String[]{"id"}),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    BulkCreateTicketDto item = items.get(i);
+                    ps.setString(1, codes.get(i));
+                    ps.setString(2, item.getSubject());
+                    ps.setString(3, item.getDescription());
+                    ps.setString(4, TicketStatus.OPEN.name());
+                    ps.setString(5, parsePriority(item.getPriority()).name());
+                    ps.setLong(6, item.getOwnerId());
+                    if (item.getAssigneeId() != null) {
+                        ps.setLong(7, item.getAssigneeId());
+                    } else {
+                        ps.setNull(7, Types.BIGINT);
+                    }
+                    ps.setObject(8, now);
+                    ps.setObject(9, now);
+                }
+                
+                @Override
+                public int getBatchSize() {
+                    return items.size();
+                }
+            },
+            keyHolder);
+        return keyHolder.getKeyList().stream()
+            .map(Map::values)
+            .map(values -> ((Number) values.iterator().next()).longValue())
+            .collect(Collectors.toList());
+    }
+    
+    private TicketPriority parsePriority(String priority) {
+        if (priority == null) {
+            return TicketPriority.MEDIUM;
+        }
+        try {
+            return TicketPriority.valueOf(priority.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return TicketPriority.MEDIUM;
+        }
+    }
+    
+    private BulkResultDto finish(BulkResultDto result, long started) {
+        result.complete(started);
+        log.info("Bulk ticket import: {} received, {} created, {} failed in {} ms ({} tickets/s)",
+            result.getReceived(), result.getCreated(), result.getFailed(), result.getElapsedMillis(),
+            Math.round(result.getItemsPerSecond()));
+        return result;
+    }
+}
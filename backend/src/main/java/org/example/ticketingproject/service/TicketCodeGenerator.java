@@ -0,0 +1,10 @@
+package org.example.ticketingproject.service;
+
+/**
+ * Source of unique ticket codes. The default implementation is
+ * {@link SnowflakeTicketCodeGenerator}; declare another bean as {@code @Primary} to replace it.
+ */
+public interface TicketCodeGenerator {
+    
+    String nextCode();
+}
@@ -0,0 +1,290 @@
+package org.example.ticketingproject.service;
+
+import jakarta.annotation.PostConstruct;
+import org.example.ticketingproject.dto.TicketStatsDto;
+import org.example.ticketingproject.entity.TicketCounter;
+import org.example.ticketingproject.entity.TicketPriority;
+import org.example.ticketingproject.entity.TicketStatus;
+import org.example.ticketingproject.repository.TicketCounterRepository;
+import org.example.ticketingproject.repository.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Dashboard counters (total, per status, per priority, per assignee) kept in memory as striped
+ * {@link LongAdder}s, so reads never touch the database.
+ * <p>
+ * Counters are seeded from GROUP BY queries at startup and then moved by deltas that
+ * {@link TicketService} reports after each commit. They are re-seeded on a schedule to pick up
+ * writes made by other nodes. A transaction holds {@code commitGate} from just before it commits
+ * until its deltas are applied, and the GROUP BY runs under the exclusive side of the gate, so
+ * every commit is either in the counts or in the deltas replayed onto them, never both. Ticket
+ * commits on this node wait for those queries once per reconcile interval. One node at a time,
+ * elected through {@link SchedulerLocks}, snapshots the counters into the {@code ticket_counters}
+ * table for reporting tools.
+ */
+@Service
+public class TicketCounterService {
+    
+    private static final Logger log = LoggerFactory.getLogger(TicketCounterService.class);
+    
+    private static final String TOTAL = "total";
+    private static final String STATUS = "status:";
+    private static final String PRIORITY = "priority:";
+    private static final String ASSIGNEE = "assignee:";
+    private static final String UNASSIGNED = ASSIGNEE + "none";
+    
+    private static final String FLUSH_LOCK = "ticket-counters-flush";
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private TicketCounterRepository ticketCounterRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private SchedulerLocks schedulerLocks;
+    
+    @Value("${ticketing.counters.flush-interval-ms:30000}")
+    private long flushIntervalMs;
+    
+    private volatile ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    
+    // Deltas committed after a reconcile's GROUP BY, replayed onto its result; guarded by swapLock
+    private ConcurrentHashMap<String, LongAdder> journal;
+    
+    // Deltas take the read lock, so starting the journal and swapping the counters see none half applied
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    
+    // Shared from a transaction's commit until its deltas are applied; exclusive while reconcile counts
+    private final ReadWriteLock commitGate = new ReentrantReadWriteLock();
+    
+    @PostConstruct
+    void init() {
+        reconcile();
+    }
+    
+    public void recordCreated(TicketStatus status, TicketPriority priority, Long assigneeId) {
+        afterCommit(() -> {
+            add(TOTAL, 1);
+            add(STATUS + status.name(), 1);
+            add(PRIORITY + priority.name(), 1);
+            add(assigneeKey(assigneeId), 1);
+        });
+    }
+    
+    public void recordDeleted(TicketStatus status, TicketPriority priority, Long assigneeId) {
+        afterCommit(() -> {
+            add(TOTAL, -1);
+            add(STATUS + status.name(), -1);
+            add(PRIORITY + priority.name(), -1);
+            add(assigneeKey(assigneeId), -1);
+        });
+    }
+    
+    public void recordChanged(TicketStatus oldStatus, TicketStatus newStatus,
+                              TicketPriority oldPriority, TicketPriority newPriority,
+                              Long oldAssigneeId, Long newAssigneeId) {
+        if (oldStatus == newStatus && oldPriority == newPriority && Objects.equals(oldAssigneeId, newAssigneeId)) {
+            return;
+        }
+        afterCommit(() -> {
+            move(STATUS + oldStatus.name(), STATUS + newStatus.name());
+            move(PRIORITY + oldPriority.name(), PRIORITY + newPriority.name());
+            move(assigneeKey(oldAssigneeId), assigneeKey(newAssigneeId));
+        });
+    }
+    
+    public TicketStatsDto getStats() {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (TicketStatus status : TicketStatus.values()) {
+            byStatus.put(status.name(), get(STATUS + status.name()));
+        }
+        Map<String, Long> byPriority = new LinkedHashMap<>();
+        for (TicketPriority priority : TicketPriority.values()) {
+            byPriority.put(priority.name(), get(PRIORITY + priority.name()));
+        }
+        Map<Long, Long> byAssignee = new TreeMap<>();
+        counters.forEach((name, value) -> {
+            if (name.startsWith(ASSIGNEE) && !name.equals(UNASSIGNED) && value.sum() > 0) {
+                byAssignee.put(Long.valueOf(name.substring(ASSIGNEE.length())), value.sum());
+            }
+        });
+        
+        TicketStatsDto stats = new TicketStatsDto();
+        stats.setTotal(get(TOTAL));
+        stats.setByStatus(byStatus);
+        stats.setByPriority(byPriority);
+        stats.setByAssignee(byAssignee);
+        stats.setUnassigned(get(UNASSIGNED));
+        return stats;
+    }
+    
+    @Scheduled(initialDelayString = "${ticketing.counters.reconcile-interval-ms:600000}",
+               fixedDelayString = "${ticketing.counters.reconcile-interval-ms:600000}")
+    void reconcile() {
+        ConcurrentHashMap<String, LongAdder> fresh = new ConcurrentHashMap<>();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                // Taken once the transaction holds its connection, so waiting commits cannot starve it of one
+                commitGate.writeLock().lock();
+                try {
+                    withSwapLock(() -> journal = new ConcurrentHashMap<>());
+                    seed(fresh, STATUS, ticketRepository.countGroupedByStatus());
+                    seed(fresh, PRIORITY, ticketRepository.countGroupedByPriority());
+                    seed(fresh, ASSIGNEE, ticketRepository.countGroupedByAssignee());
+                } finally {
+                    commitGate.writeLock().unlock();
+                }
+            });
+            long total = fresh.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(STATUS))
+                .mapToLong(entry -> entry.getValue().sum())
+                .sum();
+            fresh.computeIfAbsent(TOTAL, key -> new LongAdder()).add(total);
+            withSwapLock(() -> {
+                journal.forEach((name, delta) -> fresh.computeIfAbsent(name, key -> new LongAdder()).add(delta.sum()));
+                counters = fresh;
+            });
+        } finally {
+            withSwapLock(() -> journal = null);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${ticketing.counters.flush-interval-ms:30000}")
+    void flush() {
+        if (!schedulerLocks.tryAcquire(FLUSH_LOCK, Duration.ofMillis(flushIntervalMs * 3))) {
+            return;
+        }
+        Map<String, Long> snapshot = counters.entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum()));
+        Instant now = Instant.now();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                Map<String, TicketCounter> stored = ticketCounterRepository.findAll().stream()
+                    .collect(Collectors.toMap(TicketCounter::getName, Function.identity()));
+                Map<String, TicketCounter> changed = new HashMap<>();
+                snapshot.forEach((name, value) -> {
+                    TicketCounter counter = stored.get(name);
+                    if (counter == null) {
+                        counter = new TicketCounter();
+                        counter.setName(name);
+                    } else if (counter.getTotal() == value) {
+                        return;
+                    }
+                    counter.setTotal(value);
+                    counter.setUpdatedAt(now);
+                    changed.put(name, counter);
+                });
+                ticketCounterRepository.saveAll(changed.values());
+                // e.g. an assignee left with no tickets is no longer in the counters after a reconcile
+                List<TicketCounter> removed = stored.values().stream()
+                    .filter(counter -> !snapshot.containsKey(counter.getName()))
+                    .collect(Collectors.toList());
+                ticketCounterRepository.deleteAllInBatch(removed);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush ticket counters", e);
+        }
+    }
+    
+    private void seed(Map<String, LongAdder> target, String prefix, Iterable<TicketRepository.GroupCount> counts) {
+        for (TicketRepository.GroupCount count : counts) {
+            String name = prefix.equals(ASSIGNEE) ? assigneeKey((Long) count.getGroupKey())
+                : prefix + ((Enum<?>) count.getGroupKey()).name();
+            target.computeIfAbsent(name, key -> new LongAdder()).add(count.getTotal());
+        }
+    }
+    
+    /** Like {@link TransactionHooks#afterCommit}, but holds the commit gate across the commit. */
+    private void afterCommit(Runnable deltas) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deltas.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean gated;
+            
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commitGate.readLock().lock();
+                gated = true;
+            }
+            
+            @Override
+            public void afterCommit() {
+                deltas.run();
+            }
+            
+            @Override
+            public void afterCompletion(int status) {
+                if (gated) {
+                    commitGate.readLock().unlock();
+                }
+            }
+        });
+    }
+    
+    private void move(String from, String to) {
+        if (!from.equals(to)) {
+            add(from, -1);
+            add(to, 1);
+        }
+    }
+    
+    private void add(String name, long delta) {
+        swapLock.readLock().lock();
+        try {
+            counters.computeIfAbsent(name, key -> new LongAdder()).add(delta);
+            if (journal != null) {
+                journal.computeIfAbsent(name, key -> new LongAdder()).add(delta);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+    
+    private void withSwapLock(Runnable action) {
+        swapLock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+    
+    private long get(String name) {
+        LongAdder value = counters.get(name);
+        return value != null ? value.sum() : 0;
+    }
+    
+    private String assigneeKey(Long assigneeId) {
+        return assigneeId != null ? ASSIGNEE + assigneeId : UNASSIGNED;
+    }
+}
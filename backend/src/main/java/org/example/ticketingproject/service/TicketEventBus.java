@@ -0,0 +1,335 @@
+package org.example.ticketingproject.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.ticketingproject.dto.TicketEventDto;
+import org.example.ticketingproject.entity.Ticket;
+import org.example.ticketingproject.entity.TicketPriority;
+import org.example.ticketingproject.entity.TicketStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process fan-out of ticket and comment changes to Server-Sent Events subscribers.
+ * <p>
+ * Services publish after commit; publishing only appends to each matching subscriber's bounded
+ * buffer and never blocks on a client. A small shared pool drains the buffers onto the
+ * connections. When a slow client's buffer is full the oldest event is dropped, and the client
+ * is sent a {@code resync} event once it catches up so it can refetch what it missed.
+ * <p>
+ * A client whose socket stops accepting data blocks its sender thread inside the write. Once a
+ * write has taken longer than {@code ticketing.events.send-timeout-ms} the subscriber is dropped
+ * and the pool gets an extra thread until the stuck write returns, so the other subscribers keep
+ * receiving events. The stuck thread completes the emitter when the container's write timeout
+ * releases it.
+ * <p>
+ * The last {@code ticketing.events.replay-size} events are kept so a reconnecting
+ * {@code EventSource} (which sends {@code Last-Event-ID}) resumes without polling. Events are
+ * per node: changes made through another instance are not seen here.
+ */
+@Service
+public class TicketEventBus {
+    
+    private static final Logger log = LoggerFactory.getLogger(TicketEventBus.class);
+    
+    private static final int SENDER_THREADS = 4;
+    
+    // Values of Subscriber.sendStartedNanos while no send is in progress, or after it was given up on
+    private static final long IDLE = Long.MIN_VALUE;
+    private static final long ABANDONED = Long.MIN_VALUE + 1;
+    
+    @Value("${ticketing.events.buffer-size:256}")
+    private int bufferSize;
+    
+    @Value("${ticketing.events.replay-size:1000}")
+    private int replaySize;
+    
+    @Value("${ticketing.events.timeout-ms:1800000}")
+    private long timeoutMillis;
+    
+    @Value("${ticketing.events.send-timeout-ms:10000}")
+    private long sendTimeoutMillis;
+    
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Deque<TicketEventDto> replay = new ArrayDeque<>();
+    private final AtomicInteger senderCount = new AtomicInteger();
+    private final ThreadPoolExecutor senders = new ThreadPoolExecutor(SENDER_THREADS, SENDER_THREADS,
+        60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "ticket-events-" + senderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    
+    /**
+     * Opens a subscription. Null or empty filters match everything; otherwise an event matches
+     * when its current or previous assignee/status is in the filter, so a client also hears
+     * about tickets leaving its view.
+     */
+    public SseEmitter subscribe(Set<Long> assigneeIds, Set<TicketStatus> statuses, Long lastEventId) {
+        return subscribe(new SseEmitter(timeoutMillis), assigneeIds, statuses, lastEventId);
+    }
+    
+    SseEmitter subscribe(SseEmitter emitter, Set<Long> assigneeIds, Set<TicketStatus> statuses, Long lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter, assigneeIds, statuses);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        
+        synchronized (replay) {
+            // Registering under the replay lock keeps the replayed and live events gapless
+            if (lastEventId != null) {
+                for (TicketEventDto event : replay) {
+                    if (event.getId() > lastEventId) {
+                        subscriber.offer(event, bufferSize);
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        subscriber.schedule();
+        return emitter;
+    }
+    
+    public void publishTicketCreated(Ticket ticket) {
+        publish(TicketEventDto.Type.TICKET_CREATED, ticket, null, null, null);
+    }
+    
+    public void publishTicketCreated(Long ticketId, String code, TicketPriority priority, Long assigneeId) {
+        publish(TicketEventDto.Type.TICKET_CREATED, ticketId, code, TicketStatus.OPEN, null,
+            priority, assigneeId, null, null);
+    }
+    
+    public void publishTicketUpdated(Ticket ticket, TicketStatus previousStatus, Long previousAssigneeId) {
+        publish(TicketEventDto.Type.TICKET_UPDATED, ticket, previousStatus, previousAssigneeId, null);
+    }
+    
+    public void publishTicketDeleted(Ticket ticket) {
+        publish(TicketEventDto.Type.TICKET_DELETED, ticket, null, null, null);
+    }
+    
+    public void publishCommentEvent(TicketEventDto.Type type, Ticket ticket, Long commentId) {
+        publish(type, ticket, null, null, commentId);
+    }
+    
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+    
+    @Scheduled(fixedDelayString = "${ticketing.events.heartbeat-interval-ms:15000}")
+    void heartbeat() {
+        // Surfaces dead connections (the send fails) and keeps proxies from closing idle streams
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            subscriber.schedule();
+        }
+    }
+    
+    @Scheduled(fixedDelay = 1000)
+    void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.abandonIfStalled(now, TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis));
+        }
+    }
+    
+    @EventListener(ContextClosedEvent.class)
+    void closeSubscribers() {
+        // Runs before the web server stops, so graceful shutdown is not held up by open streams
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        senders.shutdownNow();
+    }
+    
+    private void publish(TicketEventDto.Type type, Ticket ticket, TicketStatus previousStatus,
+                         Long previousAssigneeId, Long commentId) {
+        // Captured now, while the entity is attached; delivered only if the transaction commits
+        publish(type, ticket.getId(), ticket.getCode(), ticket.getStatus(), previousStatus,
+            ticket.getPriority(), assigneeId(ticket), previousAssigneeId, commentId);
+    }
+    
+    private void publish(TicketEventDto.Type type, Long ticketId, String code, TicketStatus status,
+                         TicketStatus previousStatus, TicketPriority priority, Long assigneeId,
+                         Long previousAssigneeId, Long commentId) {
+        TicketEventDto event = new TicketEventDto();
+        event.setType(type);
+        event.setTicketId(ticketId);
+        event.setTicketCode(code);
+        event.setStatus(status.name());
+        event.setPreviousStatus(previousStatus != null ? previousStatus.name() : null);
+        event.setPriority(priority.name());
+        event.setAssigneeId(assigneeId);
+        event.setPreviousAssigneeId(previousAssigneeId);
+        event.setCommentId(commentId);
+        TransactionHooks.afterCommit(() -> dispatch(event));
+    }
+    
+    private void dispatch(TicketEventDto event) {
+        synchronized (replay) {
+            event.setId(sequence.incrementAndGet());
+            event.setAt(Instant.now());
+            replay.addLast(event);
+            if (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.matches(event)) {
+                    subscriber.offer(event, bufferSize);
+                }
+            }
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.schedule();
+        }
+    }
+    
+    /** Grows or shrinks the sender pool by the threads currently stuck in a stalled write. */
+    private synchronized void resizeSenders(int delta) {
+        int size = senders.getCorePoolSize() + delta;
+        if (delta > 0) {
+            senders.setMaximumPoolSize(size);
+            senders.setCorePoolSize(size);
+        } else {
+            senders.setCorePoolSize(size);
+            senders.setMaximumPoolSize(size);
+        }
+    }
+    
+    private static Long assigneeId(Ticket ticket) {
+        return ticket.getAssignee() != null ? ticket.getAssignee().getId() : null;
+    }
+    
+    private final class Subscriber implements Runnable {
+        
+        private final SseEmitter emitter;
+        private final Set<Long> assigneeIds;
+        private final Set<TicketStatus> statuses;
+        private final Deque<TicketEventDto> buffer = new ArrayDeque<>();
+        private final AtomicInteger scheduled = new AtomicInteger();
+        private final AtomicLong sendStartedNanos = new AtomicLong(IDLE);
+        private long dropped;
+        private boolean stalled;
+        private volatile boolean heartbeatDue;
+        
+        Subscriber(SseEmitter emitter, Set<Long> assigneeIds, Set<TicketStatus> statuses) {
+            this.emitter = emitter;
+            this.assigneeIds = assigneeIds;
+            this.statuses = statuses;
+        }
+        
+        boolean matches(TicketEventDto event) {
+            boolean assigneeMatches = assigneeIds == null || assigneeIds.isEmpty()
+                || assigneeIds.contains(event.getAssigneeId()) || assigneeIds.contains(event.getPreviousAssigneeId());
+            boolean statusMatches = statuses == null || statuses.isEmpty()
+                || statuses.stream().anyMatch(s -> s.name().equals(event.getStatus()) || s.name().equals(event.getPreviousStatus()));
+            return assigneeMatches && statusMatches;
+        }
+        
+        synchronized void offer(TicketEventDto event, int capacity) {
+            if (buffer.size() >= capacity) {
+                buffer.removeFirst();
+                dropped++;
+            }
+            buffer.addLast(event);
+        }
+        
+        void schedule() {
+            // At most one drain per subscriber runs at a time, so events are sent in order
+            if (scheduled.getAndIncrement() == 0) {
+                try {
+                    senders.execute(this);
+                } catch (RuntimeException e) {
+                    scheduled.set(0);
+                }
+            }
+        }
+        
+        @Override
+        public void run() {
+            do {
+                try {
+                    drain();
+                } catch (IOException | RuntimeException e) {
+                    log.debug("Dropping event subscriber: {}", e.getMessage());
+                    subscribers.remove(this);
+                    emitter.completeWithError(e);
+                    if (stalled) {
+                        resizeSenders(-1);
+                    }
+                    return;
+                }
+            } while (scheduled.decrementAndGet() > 0);
+        }
+        
+        void abandonIfStalled(long now, long timeoutNanos) {
+            long started = sendStartedNanos.get();
+            if (started != IDLE && started != ABANDONED && now - started > timeoutNanos
+                    && sendStartedNanos.compareAndSet(started, ABANDONED)) {
+                log.info("Event subscriber has not accepted data for {} ms, dropping it", sendTimeoutMillis);
+                subscribers.remove(this);
+                resizeSenders(1);
+            }
+        }
+        
+        private void drain() throws IOException {
+            List<TicketEventDto> batch;
+            long missed;
+            synchronized (this) {
+                batch = new ArrayList<>(buffer);
+                buffer.clear();
+                missed = dropped;
+                dropped = 0;
+            }
+            if (missed > 0) {
+                send(SseEmitter.event().name("resync").data(missed));
+            }
+            for (TicketEventDto event : batch) {
+                send(SseEmitter.event()
+                    .id(Long.toString(event.getId()))
+                    .name(event.getType().name())
+                    .data(event));
+            }
+            if (batch.isEmpty() && missed == 0 && heartbeatDue) {
+                send(SseEmitter.event().comment("heartbeat"));
+            }
+            heartbeatDue = false;
+        }
+        
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            sendStartedNanos.set(System.nanoTime());
+            try {
+                emitter.send(event);
+            } finally {
+                // The pool already replaced this thread if the send was given up on
+                stalled = sendStartedNanos.getAndSet(IDLE) == ABANDONED;
+            }
+            if (stalled) {
+                throw new IOException("Send took longer than " + sendTimeoutMillis + " ms");
+            }
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package org.example.ticketingproject.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.example.ticketingproject.entity.TicketPriority;
+import org.example.ticketingproject.entity.TicketStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Streams tickets or their comments as CSV or NDJSON straight from a forward-only JDBC result
+ * set, one row at a time, so heap use does not grow with the table. On MySQL set
+ * {@code ticketing.export.fetch-size} to {@code Integer.MIN_VALUE}; otherwise Connector/J reads
+ * the whole result into memory before returning the first row.
+ * <p>
+ * An export holds a pooled connection for as long as the client takes to download it, so only
+ * {@code ticketing.export.max-concurrent} may run at once.
+ */
+@Service
+public class TicketExportService {
+    
+    public enum Dataset { TICKETS, COMMENTS }
+    
+    public enum Format { CSV, NDJSON }
+    
+    private static final String TICKETS_SQL = "SELECT t.id, t.code, t.subject, t.description, t.status, t.priority, " +
+        "t.owner_id, o.email AS owner_email, t.assignee_id, a.email AS assignee_email, t.closed_at, t.created_at, t.updated_at " +
+        "FROM tickets t JOIN users o ON o.id = t.owner_id LEFT JOIN users a ON a.id = t.assignee_id";
+    
+    private static final String COMMENTS_SQL = "SELECT c.id, c.ticket_id, t.code AS ticket_code, c.author_id, " +
+        "u.email AS author_email, c.body, c.created_at, c.updated_at " +
+        "FROM comments c JOIN tickets t ON t.id = c.ticket_id JOIN users u ON u.id = c.author_id";
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${ticketing.export.fetch-size:1000}")
+    private int fetchSize;
+    
+    @Value("${ticketing.export.max-concurrent:2}")
+    private int maxConcurrent;
+    
+    private JdbcTemplate streamingJdbcTemplate;
+    private Semaphore running;
+    
+    @PostConstruct
+    void init() {
+        streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        streamingJdbcTemplate.setFetchSize(fetchSize);
+        running = new Semaphore(maxConcurrent);
+    }
+    
+    public static Dataset parseDataset(String value) {
+        try {
+            return Dataset.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid export type: " + value);
+        }
+    }
+    
+    public static Format parseFormat(String value) {
+        try {
+            return Format.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid export format: " + value);
+        }
+    }
+    
+    /**
+     * Reserves an export slot; the caller must {@link #release()} it when done.
+     */
+    public void acquire() {
+        if (!running.tryAcquire()) {
+            throw new RuntimeException("Too many exports in progress, try again later");
+        }
+    }
+    
+    public void release() {
+        running.release();
+    }
+    
+    /**
+     * Writes the export to {@code out} and returns the number of rows written. Null filters are
+     * left out of the query; for comments they apply to the parent ticket.
+     */
+    public long export(Dataset dataset, Format format, TicketStatus status, TicketPriority priority,
+                       Long ownerId, Long assigneeId, OutputStream out) throws IOException {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(dataset == Dataset.TICKETS ? TICKETS_SQL : COMMENTS_SQL);
+        String conjunction = " WHERE ";
+        if (status != null) {
+            sql.append(conjunction).append("t.status = ?");
+            params.add(status.name());
+            conjunction = " AND ";
+        }
+        if (priority != null) {
+            sql.append(conjunction).append("t.priority = ?");
+            params.add(priority.name());
+            conjunction = " AND ";
+        }
+        if (ownerId != null) {
+            sql.append(conjunction).append("t.owner_id = ?");
+            params.add(ownerId);
+            conjunction = " AND ";
+        }
+        if (assigneeId != null) {
+            sql.append(conjunction).append("t.assignee_id = ?");
+            params.add(assigneeId);
+        }
+        sql.append(dataset == Dataset.TICKETS ? " ORDER BY t.id" : " ORDER BY c.ticket_id, c.id");
+        
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        RowSink sink = format == Format.CSV ? new CsvSink(writer) : new NdjsonSink(writer, objectMapper);
+        long[] rows = {0};
+        try {
+            streamingJdbcTemplate.query(sql.toString(), rs -> {
+                try {
+                    if (rows[0] == 0) {
+                        sink.start(rs);
+                    }
+                    sink.row(rs);
+                    rows[0]++;
+                } catch (IOException e) {
+                    // Client went away; abandoning the result set releases the connection
+                    throw new UncheckedIOException(e);
+                }
+            }, params.toArray());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (rows[0] == 0 && format == Format.CSV) {
+            writer.write(String.join(",", dataset == Dataset.TICKETS
+                ? List.of("id", "code", "subject", "description", "status", "priority", "owner_id", "owner_email",
+                    "assignee_id", "assignee_email", "closed_at", "created_at", "updated_at")
+                : List.of("id", "ticket_id", "ticket_code", "author_id", "author_email", "body", "created_at", "updated_at")));
+            writer.write("\r\n");
+        }
+        writer.flush();
+        return rows[0];
+    }
+    
+    private static Object value(ResultSet rs, int column, int type) throws SQLException {
+        if (type == Types.TIMESTAMP || type == Types.TIMESTAMP_WITH_TIMEZONE) {
+            OffsetDateTime timestamp = rs.getObject(column, OffsetDateTime.class);
+            return timestamp != null ? timestamp.toInstant().toString() : null;
+        }
+        if (type == Types.CLOB || type == Types.NCLOB) {
+            return rs.getString(column);
+        }
+        return rs.getObject(column);
+    }
+    
+    private interface RowSink {
+        void start(ResultSet rs) throws SQLException, IOException;
+        
+        void row(ResultSet rs) throws SQLException, IOException;
+    }
+    
+    private static final class CsvSink implements RowSink {
+        
+        private final Writer writer;
+        private int[] types;
+        
+        CsvSink(Writer writer) {
+            this.writer = writer;
+        }
+        
+        @Override
+        public void start(ResultSet rs) throws SQLException, IOException {
+            int columns = rs.getMetaData().getColumnCount();
+            types = new int[columns];
+            for (int i = 1; i <= columns; i++) {
+                types[i - 1] = rs.getMetaData().getColumnType(i);
+                if (i > 1) {
+                    writer.write(',');
+                }
+                writer.write(rs.getMetaData().getColumnLabel(i).toLowerCase());
+            }
+            writer.write("\r\n");
+        }
+        
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            for (int i = 1; i <= types.length; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                Object value = value(rs, i, types[i - 1]);
+                if (value != null) {
+                    writeField(value.toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+        
+        private void writeField(String field) throws IOException {
+            // RFC 4180: quote fields containing separators, quotes or line breaks
+            if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+                writer.write(field);
+                return;
+            }
+            writer.write('"');
+            writer.write(field.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+    
+    private static final class NdjsonSink implements RowSink {
+        
+        private final Writer writer;
+        private final JsonGenerator generator;
+        private String[] names;
+        private int[] types;
+        
+        NdjsonSink(Writer writer, ObjectMapper objectMapper) throws IOException {
+            this.writer = writer;
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Rows are separated by the newline written below, and buffering is left to the writer
+            this.generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            this.generator.setRootValueSeparator(null);
+        }
+        
+        @Override
+        public void start(ResultSet rs) throws SQLException {
+            int columns = rs.getMetaData().getColumnCount();
+            names = new String[columns];
+            types = new int[columns];
+            for (int i = 1; i <= columns; i++) {
+                names[i - 1] = toCamelCase(rs.getMetaData().getColumnLabel(i).toLowerCase());
+                types[i - 1] = rs.getMetaData().getColumnType(i);
+            }
+        }
+        
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 1; i <= names.length; i++) {
+                Object value = value(rs, i, types[i - 1]);
+                if (value instanceof Number number) {
+                    generator.writeNumberField(names[i - 1], number.longValue());
+                } else if (value instanceof Boolean bool) {
+                    generator.writeBooleanField(names[i - 1], bool);
+                } else {
+                    generator.writeStringField(names[i - 1], value != null ? value.toString() : null);
+                }
+            }
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        }
+        
+        private static String toCamelCase(String column) {
+            StringBuilder name = new StringBuilder(column.length());
+            boolean upper = false;
+            for (char c : column.toCharArray()) {
+                if (c == '_') {
+                    upper = true;
+                } else {
+                    name.append(upper ? Character.toUpperCase(c) : c);
+                    upper = false;
+                }
+            }
+            return name.toString();
+        }
+    }
+}
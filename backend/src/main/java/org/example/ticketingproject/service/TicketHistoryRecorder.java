@@ -0,0 +1,181 @@
+package org.example.ticketingproject.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.ticketingproject.entity.TicketStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes ticket status/assignee transitions to {@code ticket_history}.
+ * <p>
+ * In the default {@code async} mode a transition is queued once the ticket change commits and a
+ * background writer inserts queued rows in JDBC batches, so the request transaction carries no
+ * extra insert. A history row can lag its ticket change by one flush and is lost if the process
+ * dies before the flush. In {@code sync} mode the row is inserted in the request transaction
+ * instead, and commits or rolls back with the ticket change.
+ * <p>
+ * When the queue is full the committing thread drains and writes it itself rather than dropping
+ * entries.
+ */
+@Service
+public class TicketHistoryRecorder {
+    
+    private static final Logger log = LoggerFactory.getLogger(TicketHistoryRecorder.class);
+    
+    private static final String INSERT_SQL = "INSERT INTO ticket_history (ticket_id, actor_id, from_status, to_status, " +
+        "from_assignee_id, to_assignee_id, at, note) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${ticketing.history.mode:async}")
+    private String mode;
+    
+    @Value("${ticketing.history.queue-capacity:10000}")
+    private int queueCapacity;
+    
+    @Value("${ticketing.history.batch-size:200}")
+    private int batchSize;
+    
+    private BlockingQueue<Entry> queue;
+    private Thread writer;
+    private volatile boolean running;
+    
+    @PostConstruct
+    void start() {
+        if (isSync()) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::drainLoop, "ticket-history-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        flushPending();
+    }
+    
+    /**
+     * Records a transition; a no-op when neither the status nor the assignee changed.
+     */
+    public void record(Long ticketId, Long actorId, TicketStatus fromStatus, TicketStatus toStatus,
+                       Long fromAssigneeId, Long toAssigneeId, String note) {
+        if (fromStatus == toStatus && Objects.equals(fromAssigneeId, toAssigneeId)) {
+            return;
+        }
+        Entry entry = new Entry(ticketId, actorId, fromStatus, toStatus, fromAssigneeId, toAssigneeId, Instant.now(), note);
+        if (isSync()) {
+            write(List.of(entry));
+            return;
+        }
+        TransactionHooks.afterCommit(() -> enqueue(entry));
+    }
+    
+    /**
+     * Number of transitions waiting for the background writer.
+     */
+    public int getPendingCount() {
+        return queue != null ? queue.size() : 0;
+    }
+    
+    /**
+     * Writes everything currently queued on the calling thread.
+     */
+    public void flushPending() {
+        if (queue == null) {
+            return;
+        }
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            writeSafely(batch);
+            batch.clear();
+        }
+    }
+    
+    private boolean isSync() {
+        return "sync".equalsIgnoreCase(mode);
+    }
+    
+    private void enqueue(Entry entry) {
+        if (!queue.offer(entry)) {
+            log.warn("History queue full ({} entries), flushing on the request thread", queueCapacity);
+            flushPending();
+            if (!queue.offer(entry)) {
+                writeSafely(List.of(entry));
+            }
+        }
+    }
+    
+    private void drainLoop() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                writeSafely(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+    
+    private void writeSafely(List<Entry> batch) {
+        try {
+            write(batch);
+        } catch (RuntimeException e) {
+            // One bad row (e.g. its ticket was deleted meanwhile) fails the whole batch; retry row by row
+            log.warn("History batch of {} failed, retrying individually: {}", batch.size(), e.getMessage());
+            for (Entry entry : batch) {
+                try {
+                    write(List.of(entry));
+                } catch (RuntimeException rowError) {
+                    log.error("Dropping history entry for ticket {}: {}", entry.ticketId(), rowError.getMessage());
+                }
+            }
+        }
+    }
+    
+    private void write(List<Entry> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, entry) -> {
+            ps.setLong(1, entry.ticketId());
+            ps.setObject(2, entry.actorId());
+            ps.setString(3, entry.fromStatus() != null ? entry.fromStatus().name() : null);
+            ps.setString(4, entry.toStatus() != null ? entry.toStatus().name() : null);
+            ps.setObject(5, entry.fromAssigneeId());
+            ps.setObject(6, entry.toAssigneeId());
+            ps.setObject(7, OffsetDateTime.ofInstant(entry.at(), ZoneOffset.UTC));
+            ps.setString(8, entry.note());
+        });
+    }
+    
+    private record Entry(Long ticketId, Long actorId, TicketStatus fromStatus, TicketStatus toStatus,
+                         Long fromAssigneeId, Long toAssigneeId, Instant at, String note) {
+    }
+}
@@ -0,0 +1,379 @@
+package org.example.ticketingproject.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.example.ticketingproject.entity.Ticket;
+import org.example.ticketingproject.repository.CommentRepository;
+import org.example.ticketingproject.repository.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Embedded Lucene index over ticket code, subject, description and comment bodies.
+ * <p>
+ * Writes are applied after the owning transaction commits, on a single indexer thread
+ * that re-reads the ticket from the database, so the index never sees rolled back data
+ * and request threads never wait on Lucene. Searches run against a near-real-time reader.
+ * <p>
+ * Every index commit records the time up to which the database has been indexed. At startup and
+ * on a schedule the index re-reads the tickets and comments changed since then, so it picks up
+ * writes made by other nodes or while this one was down.
+ */
+@Service
+public class TicketSearchService {
+    
+    private static final Logger log = LoggerFactory.getLogger(TicketSearchService.class);
+    
+    private static final String ID = "id";
+    private static final String CODE = "code";
+    private static final String SUBJECT = "subject";
+    private static final String DESCRIPTION = "description";
+    private static final String COMMENTS = "comments";
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final String INDEXED_UNTIL = "indexedUntil";
+    // A row stamped just before a catch-up can commit after it has read; the next one re-reads it
+    private static final Duration CATCH_UP_OVERLAP = Duration.ofMinutes(1);
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private CommentRepository commentRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${ticketing.search.index-dir:}")
+    private String indexDir;
+    
+    private final Analyzer analyzer = new StandardAnalyzer();
+    
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ticket-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private TransactionTemplate readOnlyTransaction;
+    
+    @PostConstruct
+    void open() throws IOException {
+        directory = indexDir == null || indexDir.isBlank()
+            ? new ByteBuffersDirectory()
+            : FSDirectory.open(Path.of(indexDir));
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+            .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    void rebuildOrCatchUp() {
+        indexer.execute(() -> {
+            try {
+                if (writer.getDocStats().numDocs == 0 || indexedUntil() == null) {
+                    doRebuild();
+                } else {
+                    doCatchUp();
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to bring search index up to date", e);
+            }
+        });
+    }
+    
+    @Scheduled(initialDelayString = "${ticketing.search.catch-up-interval-ms:60000}",
+               fixedDelayString = "${ticketing.search.catch-up-interval-ms:60000}")
+    void catchUp() {
+        indexer.execute(() -> {
+            try {
+                doCatchUp();
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to catch up search index", e);
+            }
+        });
+    }
+    
+    public void reindexAfterCommit(Long ticketId) {
+        reindexAfterCommit(List.of(ticketId));
+    }
+    
+    public void reindexAfterCommit(Collection<Long> ticketIds) {
+        List<Long> ids = List.copyOf(ticketIds);
+        TransactionHooks.afterCommit(() -> indexer.execute(() -> reindex(ids)));
+    }
+    
+    /** Re-reads the tickets from the primary in the background, dropping those that no longer exist. */
+    public void refresh(Collection<Long> ticketIds) {
+        List<Long> ids = List.copyOf(ticketIds);
+        indexer.execute(() -> reindex(ids));
+    }
+    
+    public void removeAfterCommit(Long ticketId) {
+        TransactionHooks.afterCommit(() -> indexer.execute(() -> remove(ticketId)));
+    }
+    
+    public long rebuild() {
+        try {
+            return indexer.submit(this::doRebuild).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Search index rebuild interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Search index rebuild failed: " + e.getCause().getMessage());
+        }
+    }
+    
+    public Page<Long> search(String searchTerm, Pageable pageable) {
+        if (searchTerm == null || searchTerm.isBlank()) {
+            return Page.empty(pageable);
+        }
+        try {
+            Query query = buildQuery(searchTerm.trim());
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                int offset = (int) pageable.getOffset();
+                TopDocs topDocs = searcher.search(query, offset + pageable.getPageSize());
+                long total = topDocs.totalHits.relation == TotalHits.Relation.EQUAL_TO
+                    ? topDocs.totalHits.value
+                    : searcher.count(query);
+                StoredFields storedFields = searcher.storedFields();
+                List<Long> ids = new ArrayList<>();
+                for (int i = offset; i < topDocs.scoreDocs.length; i++) {
+                    ids.add(Long.valueOf(storedFields.document(topDocs.scoreDocs[i].doc).get(ID)));
+                }
+                return new PageImpl<>(ids, pageable, total);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search failed", e);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${ticketing.search.commit-interval-ms:5000}")
+    void commit() {
+        indexer.execute(() -> {
+            try {
+                if (writer.hasUncommittedChanges()) {
+                    writer.commit();
+                }
+            } catch (IOException e) {
+                log.error("Failed to commit search index", e);
+            }
+        });
+    }
+    
+    @PreDestroy
+    void close() throws IOException, InterruptedException {
+        indexer.shutdown();
+        indexer.awaitTermination(30, TimeUnit.SECONDS);
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+    
+    private Query buildQuery(String searchTerm) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        builder.add(new BoostQuery(new PrefixQuery(new Term(CODE, searchTerm.toLowerCase(Locale.ROOT))), 5f),
+            BooleanClause.Occur.SHOULD);
+        
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(
+            new String[]{SUBJECT, DESCRIPTION, COMMENTS}, analyzer,
+            Map.of(SUBJECT, 3f, DESCRIPTION, 1f, COMMENTS, 0.5f));
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        try {
+            builder.add(parser.parse(QueryParser.escape(searchTerm)), BooleanClause.Occur.SHOULD);
+        } catch (ParseException e) {
+            throw new RuntimeException("Invalid search term: " + searchTerm);
+        }
+        return builder.build();
+    }
+    
+    private void reindex(List<Long> ticketIds) {
+        try {
+            index(ticketIds);
+            searcherManager.maybeRefresh();
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to index tickets {}", ticketIds, e);
+        }
+    }
+    
+    private void index(List<Long> ticketIds) throws IOException {
+        // Runs right after the ticket commits, so a lagging replica could still miss it
+        Map<Long, Document> documents = ReadRouting.onPrimary(
+            () -> readOnlyTransaction.execute(status -> loadDocuments(ticketIds)));
+        for (Long ticketId : ticketIds) {
+            Document document = documents.get(ticketId);
+            if (document == null) {
+                writer.deleteDocuments(new Term(ID, String.valueOf(ticketId)));
+            } else {
+                writer.updateDocument(new Term(ID, String.valueOf(ticketId)), document);
+            }
+        }
+    }
+    
+    private void doCatchUp() throws IOException {
+        Instant indexedUntil = indexedUntil();
+        if (indexedUntil == null) {
+            doRebuild();
+            return;
+        }
+        Instant started = Instant.now();
+        Instant since = indexedUntil.minus(CATCH_UP_OVERLAP);
+        Set<Long> changed = ReadRouting.onPrimary(() -> readOnlyTransaction.execute(status -> {
+            Set<Long> ids = new TreeSet<>(ticketRepository.findIdsUpdatedSince(since));
+            ids.addAll(commentRepository.findTicketIdsUpdatedSince(since));
+            return ids;
+        }));
+        List<Long> ids = new ArrayList<>(changed);
+        for (int i = 0; i < ids.size(); i += REBUILD_BATCH_SIZE) {
+            index(ids.subList(i, Math.min(ids.size(), i + REBUILD_BATCH_SIZE)));
+        }
+        markIndexedUntil(started);
+        writer.commit();
+        searcherManager.maybeRefresh();
+        log.debug("Search index caught up with {} tickets changed since {}", ids.size(), since);
+    }
+    
+    private Instant indexedUntil() {
+        Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+        if (commitData != null) {
+            for (Map.Entry<String, String> entry : commitData) {
+                if (INDEXED_UNTIL.equals(entry.getKey())) {
+                    return Instant.parse(entry.getValue());
+                }
+            }
+        }
+        return null;
+    }
+    
+    private void markIndexedUntil(Instant until) {
+        writer.setLiveCommitData(Map.of(INDEXED_UNTIL, until.toString()).entrySet());
+    }
+    
+    private void remove(Long ticketId) {
+        try {
+            writer.deleteDocuments(new Term(ID, String.valueOf(ticketId)));
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.error("Failed to remove ticket {} from search index", ticketId, e);
+        }
+    }
+    
+    private long doRebuild() throws IOException {
+        long started = System.currentTimeMillis();
+        writer.deleteAll();
+        markIndexedUntil(Instant.ofEpochMilli(started));
+        long indexed = 0;
+        long lastId = 0;
+        while (true) {
+            long afterId = lastId;
+            // The high-water mark is set before reading, so a lagging replica would lose rows for good
+            Map<Long, Document> batch = ReadRouting.onPrimary(() -> readOnlyTransaction.execute(status -> toDocuments(
+                ticketRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE)))));
+            if (batch.isEmpty()) {
+                break;
+            }
+            writer.addDocuments(batch.values());
+            indexed += batch.size();
+            lastId = Collections.max(batch.keySet());
+        }
+        writer.commit();
+        searcherManager.maybeRefresh();
+        log.info("Rebuilt search index with {} tickets in {} ms", indexed, System.currentTimeMillis() - started);
+        return indexed;
+    }
+    
+    private Map<Long, Document> loadDocuments(List<Long> ticketIds) {
+        return toDocuments(ticketRepository.findAllById(ticketIds));
+    }
+    
+    private Map<Long, Document> toDocuments(List<Ticket> tickets) {
+        if (tickets.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> ticketIds = tickets.stream().map(Ticket::getId).collect(Collectors.toList());
+        Map<Long, List<String>> bodies = commentRepository.findBodiesByTicketIdIn(ticketIds).stream()
+            .collect(Collectors.groupingBy(CommentRepository.TicketCommentBody::getTicketId,
+                Collectors.mapping(CommentRepository.TicketCommentBody::getBody, Collectors.toList())));
+        Map<Long, Document> documents = new LinkedHashMap<>();
+        for (Ticket ticket : tickets) {
+            documents.put(ticket.getId(), toDocument(ticket, bodies.getOrDefault(ticket.getId(), List.of())));
+        }
+        return documents;
+    }
+    
+    private Document toDocument(Ticket ticket, List<String> commentBodies) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(ticket.getId()), Field.Store.YES));
+        document.add(new StringField(CODE, ticket.getCode().toLowerCase(Locale.ROOT), Field.Store.NO));
+        document.add(new TextField(SUBJECT, ticket.getSubject(), Field.Store.NO));
+        document.add(new TextField(DESCRIPTION, ticket.getDescription(), Field.Store.NO));
+        for (String body : commentBodies) {
+            document.add(new TextField(COMMENTS, body, Field.Store.NO));
+        }
+        return document;
+    }
+}
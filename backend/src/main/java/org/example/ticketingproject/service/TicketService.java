@@ -1,43 +1,103 @@
 package org.example.ticketingproject.service;
 
+import org.example.ticketingproject.dto.CommentDto;
 import org.example.ticketingproject.dto.CreateTicketDto;
+import org.example.ticketingproject.dto.CursorPageDto;
+import org.example.ticketingproject.dto.TicketDetailDto;
 import org.example.ticketingproject.dto.TicketDto;
+import org.example.ticketingproject.dto.TicketHistoryDto;
+import org.example.ticketingproject.dto.TicketQueryDto;
+import org.example.ticketingproject.dto.TicketStatsDto;
+import org.example.ticketingproject.dto.TicketSummaryDto;
 import org.example.ticketingproject.dto.UpdateTicketDto;
 import org.example.ticketingproject.entity.Ticket;
+import org.example.ticketingproject.entity.TicketHistory;
 import org.example.ticketingproject.entity.TicketPriority;
 import org.example.ticketingproject.entity.TicketStatus;
 import org.example.ticketingproject.entity.User;
+import org.example.ticketingproject.repository.CommentRepository;
+import org.example.ticketingproject.repository.TicketHistoryRepository;
 import org.example.ticketingproject.repository.TicketRepository;
+import org.example.ticketingproject.repository.TicketSpecifications;
 import org.example.ticketingproject.repository.UserRepository;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class TicketService {
     
+    private static final Logger log = LoggerFactory.getLogger(TicketService.class);
+    
     @Autowired
     private TicketRepository ticketRepository;
     
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private TicketSearchService ticketSearchService;
+    
+    @Autowired
+    private TicketCodeGenerator ticketCodeGenerator;
+    
+    @Autowired
+    private UserCacheService userCacheService;
+    
+    @Value("${ticketing.queue.max-claim-probes:10}")
+    private int maxClaimProbes;
+    
+    @Autowired
+    private TicketCounterService ticketCounterService;
+    
+    @Autowired
+    private TicketHistoryRecorder ticketHistoryRecorder;
+    
+    @Autowired
+    private TicketHistoryRepository ticketHistoryRepository;
+    
+    @Autowired
+    private TicketEventBus ticketEventBus;
+    
+    @Autowired
+    private AgentWorkQueue agentWorkQueue;
+    
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+    
+    @Autowired
+    private CommentService commentService;
+    
+    @Autowired
+    private CommentRepository commentRepository;
+    
     public TicketDto createTicket(CreateTicketDto createTicketDto, Long ownerId) {
-        User owner = userRepository.findById(ownerId)
-            .orElseThrow(() -> new RuntimeException("Owner not found with id: " + ownerId));
+        requireUser(ownerId, "Owner");
         
         Ticket ticket = new Ticket();
-        ticket.setCode(generateTicketCode());
+        ticket.setCode(ticketCodeGenerator.nextCode());
         ticket.setSubject(createTicketDto.getSubject());
         ticket.setDescription(createTicketDto.getDescription());
-        ticket.setOwner(owner);
+        ticket.setOwner(userRepository.getReferenceById(ownerId));
         ticket.setStatus(TicketStatus.OPEN);
         
         if (createTicketDto.getPriority() != null) {
@@ -49,54 +109,163 @@ public class TicketService {
         }
         
         if (createTicketDto.getAssigneeId() != null) {
-            User assignee = userRepository.findById(createTicketDto.getAssigneeId())
-                .orElseThrow(() -> new RuntimeException("Assignee not found with id: " + createTicketDto.getAssigneeId()));
-            ticket.setAssignee(assignee);
+            requireUser(createTicketDto.getAssigneeId(), "Assignee");
+            ticket.setAssignee(userRepository.getReferenceById(createTicketDto.getAssigneeId()));
         }
         
         Ticket savedTicket = ticketRepository.save(ticket);
+        ticketSearchService.reindexAfterCommit(savedTicket.getId());
+        ticketCounterService.recordCreated(savedTicket.getStatus(), savedTicket.getPriority(), assigneeId(savedTicket));
+        ticketEventBus.publishTicketCreated(savedTicket);
+        queueChanged(savedTicket);
         return convertToDto(savedTicket);
     }
     
+    @Transactional(readOnly = true)
     public TicketDto getTicketById(Long id) {
-        Ticket ticket = ticketRepository.findById(id)
+        Ticket ticket = ticketRepository.findWithUsersById(id)
             .orElseThrow(() -> new RuntimeException("Ticket not found with id: " + id));
         return convertToDto(ticket);
     }
     
+    /**
+     * Ticket plus one keyset slice of its comments, in a fixed number of queries: the ticket with
+     * its owner and assignee, the comment slice with its authors, and the count.
+     */
+    @Transactional(readOnly = true)
+    public TicketDetailDto getTicketDetail(Long id, String after, int commentLimit) {
+        Ticket ticket = ticketRepository.findWithUsersById(id)
+            .orElseThrow(() -> new RuntimeException("Ticket not found with id: " + id));
+        CursorPageDto<CommentDto> comments = commentService.getCommentsByTicketIdAfter(id, after, commentLimit);
+        TicketDto ticketDto = convertToDto(ticket);
+        ticketDto.setComments(comments.getContent());
+        
+        TicketDetailDto detail = new TicketDetailDto();
+        detail.setTicket(ticketDto);
+        detail.setCommentCount(commentRepository.countByTicketId(id));
+        detail.setNextCommentCursor(comments.getNextCursor());
+        return detail;
+    }
+    
+    @Transactional(readOnly = true)
+    public ResourceVersion getTicketDetailVersion(Long id) {
+        TicketRepository.VersionStamp stamp = ticketRepository.findVersionById(id)
+            .orElseThrow(() -> new RuntimeException("Ticket not found with id: " + id));
+        CommentRepository.ListVersion comments = commentRepository.findListVersionByTicketId(id);
+        return ResourceVersion.of(comments.getCommentCount(), stamp.getUpdatedAt(), stamp.getOwnerUpdatedAt(),
+            stamp.getAssigneeUpdatedAt(), comments.getLastUpdatedAt(), comments.getLastAuthorUpdatedAt());
+    }
+    
+    @Transactional(readOnly = true)
+    public ResourceVersion getTicketVersion(Long id) {
+        return ticketRepository.findVersionById(id)
+            .map(this::toResourceVersion)
+            .orElseThrow(() -> new RuntimeException("Ticket not found with id: " + id));
+    }
+    
+    @Transactional(readOnly = true)
+    public ResourceVersion getTicketVersionByCode(String code) {
+        return ticketRepository.findVersionByCode(code)
+            .map(this::toResourceVersion)
+            .orElseThrow(() -> new RuntimeException("Ticket not found with code: " + code));
+    }
+    
+    @Transactional(readOnly = true)
     public TicketDto getTicketByCode(String code) {
-        Ticket ticket = ticketRepository.findByCode(code)
+        Ticket ticket = ticketRepository.findWithUsersByCode(code)
             .orElseThrow(() -> new RuntimeException("Ticket not found with code: " + code));
         return convertToDto(ticket);
     }
     
+    @Transactional(readOnly = true)
     public Page<TicketDto> getAllTickets(Pageable pageable) {
-        return ticketRepository.findAll(pageable).map(this::convertToDto);
+        return ticketRepository.findSummaries(pageable).map(this::convertToDto);
     }
     
+    @Transactional(readOnly = true)
     public Page<TicketDto> getTicketsByOwner(Long ownerId, Pageable pageable) {
-        return ticketRepository.findByOwnerId(ownerId, pageable).map(this::convertToDto);
+        return ticketRepository.findSummariesByOwnerId(ownerId, pageable).map(this::convertToDto);
     }
     
+    @Transactional(readOnly = true)
     public Page<TicketDto> getTicketsByAssignee(Long assigneeId, Pageable pageable) {
-        return ticketRepository.findByAssigneeId(assigneeId, pageable).map(this::convertToDto);
+        return ticketRepository.findSummariesByAssigneeId(assigneeId, pageable).map(this::convertToDto);
     }
     
+    @Transactional(readOnly = true)
     public Page<TicketDto> getTicketsByStatus(TicketStatus status, Pageable pageable) {
-        return ticketRepository.findByStatus(status, pageable).map(this::convertToDto);
+        return ticketRepository.findSummariesByStatus(status, pageable).map(this::convertToDto);
     }
     
+    @Transactional(readOnly = true)
     public Page<TicketDto> getTicketsByPriority(TicketPriority priority, Pageable pageable) {
-        return ticketRepository.findByPriority(priority, pageable).map(this::convertToDto);
+        return ticketRepository.findSummariesByPriority(priority, pageable).map(this::convertToDto);
+    }
+    
+    @Transactional(readOnly = true)
+    public Page<TicketDto> queryTickets(TicketQueryDto filter, Pageable pageable) {
+        Specification<Ticket> specification = Specification.allOf(
+            TicketSpecifications.statusIn(filter.getStatus()),
+            TicketSpecifications.priorityIn(filter.getPriority()),
+            TicketSpecifications.ownerId(filter.getOwnerId()),
+            TicketSpecifications.assigneeId(filter.getAssigneeId()),
+            TicketSpecifications.unassigned(filter.getUnassigned()),
+            TicketSpecifications.createdBetween(filter.getCreatedFrom(), filter.getCreatedTo()),
+            TicketSpecifications.closedBetween(filter.getClosedFrom(), filter.getClosedTo()));
+        return ticketRepository.findSummaries(specification, pageable).map(this::convertToDto);
     }
     
+    @Transactional(readOnly = true)
     public Page<TicketDto> searchTickets(String searchTerm, Pageable pageable) {
-        return ticketRepository.searchTickets(searchTerm, pageable).map(this::convertToDto);
+        Page<Long> hits = ticketSearchService.search(searchTerm, pageable);
+        if (hits.getContent().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, hits.getTotalElements());
+        }
+        
+        // Keep the relevance order from the index; ids deleted since the last refresh are dropped
+        Map<Long, TicketSummaryDto> summaries = ticketRepository.findSummariesByIdIn(hits.getContent())
+            .stream()
+            .collect(Collectors.toMap(TicketSummaryDto::getId, Function.identity()));
+        // e.g. deleted on another node; the indexer re-checks them on the primary
+        List<Long> missing = hits.getContent().stream()
+            .filter(id -> !summaries.containsKey(id))
+            .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            ticketSearchService.refresh(missing);
+        }
+        List<TicketDto> tickets = hits.getContent().stream()
+            .map(summaries::get)
+            .filter(Objects::nonNull)
+            .map(this::convertToDto)
+            .collect(Collectors.toList());
+        return new PageImpl<>(tickets, pageable, hits.getTotalElements());
     }
     
-    public TicketDto updateTicket(Long id, UpdateTicketDto updateTicketDto) {
-        Ticket ticket = ticketRepository.findById(id)
+    public long rebuildSearchIndex() {
+        return ticketSearchService.rebuild();
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDto<TicketDto> getTicketsAfter(String after, int limit) {
+        Pageable pageable = PageRequest.of(0, limit);
+        Slice<TicketSummaryDto> slice;
+        if (after == null || after.isBlank()) {
+            slice = ticketRepository.findSummariesForKeyset(pageable);
+        } else {
+            KeysetCursor cursor = KeysetCursor.decode(after);
+            slice = ticketRepository.findSummariesBefore(cursor.getCreatedAt(), cursor.getId(), pageable);
+        }
+        return KeysetCursor.toPage(slice.map(this::convertToDto), TicketDto::getCreatedAt, TicketDto::getId);
+    }
+    
+    public TicketDto updateTicket(Long id, UpdateTicketDto updateTicketDto, Long actorId, Long expectedVersion) {
+        requireActor(actorId);
+        Ticket ticket = ticketRepository.findWithUsersById(id)
             .orElseThrow(() -> new RuntimeException("Ticket not found with id: " + id));
+        OptimisticRetry.requireVersion(ticket.getVersion(), expectedVersion, "Ticket", id);
+        TicketStatus oldStatus = ticket.getStatus();
+        TicketPriority oldPriority = ticket.getPriority();
+        Long oldAssigneeId = assigneeId(ticket);
         
         if (updateTicketDto.getSubject() != null) {
             ticket.setSubject(updateTicketDto.getSubject());
@@ -128,37 +297,65 @@ public class TicketService {
         }
         
         if (updateTicketDto.getAssigneeId() != null) {
-            User assignee = userRepository.findById(updateTicketDto.getAssigneeId())
-                .orElseThrow(() -> new RuntimeException("Assignee not found with id: " + updateTicketDto.getAssigneeId()));
-            ticket.setAssignee(assignee);
+            // Loaded rather than referenced so the response is built from the assignee's row
+            ticket.setAssignee(userRepository.findById(updateTicketDto.getAssigneeId())
+                .orElseThrow(() -> new RuntimeException("Assignee not found with id: " + updateTicketDto.getAssigneeId())));
         }
         
-        Ticket savedTicket = ticketRepository.save(ticket);
+        // Flushed so the response carries the new version and updatedAt for the next If-Match
+        Ticket savedTicket = ticketRepository.saveAndFlush(ticket);
+        ticketSearchService.reindexAfterCommit(savedTicket.getId());
+        ticketCounterService.recordChanged(oldStatus, savedTicket.getStatus(), oldPriority, savedTicket.getPriority(),
+            oldAssigneeId, assigneeId(savedTicket));
+        ticketHistoryRecorder.record(id, actorId, oldStatus, savedTicket.getStatus(), oldAssigneeId, assigneeId(savedTicket), null);
+        ticketEventBus.publishTicketUpdated(savedTicket, oldStatus, oldAssigneeId);
+        queueChanged(savedTicket);
         return convertToDto(savedTicket);
     }
     
     public void deleteTicket(Long id) {
-        if (!ticketRepository.existsById(id)) {
-            throw new RuntimeException("Ticket not found with id: " + id);
-        }
-        ticketRepository.deleteById(id);
+        Ticket ticket = ticketRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Ticket not found with id: " + id));
+        ticketRepository.delete(ticket);
+        ticketSearchService.removeAfterCommit(id);
+        ticketCounterService.recordDeleted(ticket.getStatus(), ticket.getPriority(), assigneeId(ticket));
+        ticketEventBus.publishTicketDeleted(ticket);
+        agentWorkQueue.ticketRemoved(id);
+    }
+    
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void assignTicket(Long ticketId, Long assigneeId, Long actorId) {
+        requireActor(actorId);
+        optimisticRetry.run(() -> doAssignTicket(ticketId, assigneeId, actorId));
     }
     
-    public void assignTicket(Long ticketId, Long assigneeId) {
+    private void doAssignTicket(Long ticketId, Long assigneeId, Long actorId) {
         Ticket ticket = ticketRepository.findById(ticketId)
             .orElseThrow(() -> new RuntimeException("Ticket not found with id: " + ticketId));
         
-        User assignee = userRepository.findById(assigneeId)
-            .orElseThrow(() -> new RuntimeException("Assignee not found with id: " + assigneeId));
+        requireUser(assigneeId, "Assignee");
         
-        ticket.setAssignee(assignee);
+        Long oldAssigneeId = assigneeId(ticket);
+        ticket.setAssignee(userRepository.getReferenceById(assigneeId));
         ticketRepository.save(ticket);
+        ticketCounterService.recordChanged(ticket.getStatus(), ticket.getStatus(), ticket.getPriority(), ticket.getPriority(),
+            oldAssigneeId, assigneeId);
+        ticketHistoryRecorder.record(ticketId, actorId, ticket.getStatus(), ticket.getStatus(), oldAssigneeId, assigneeId, null);
+        ticketEventBus.publishTicketUpdated(ticket, ticket.getStatus(), oldAssigneeId);
+        queueChanged(ticket);
+    }
+    
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void changeTicketStatus(Long ticketId, TicketStatus status, Long actorId) {
+        requireActor(actorId);
+        optimisticRetry.run(() -> doChangeTicketStatus(ticketId, status, actorId));
     }
     
-    public void changeTicketStatus(Long ticketId, TicketStatus status) {
+    private void doChangeTicketStatus(Long ticketId, TicketStatus status, Long actorId) {
         Ticket ticket = ticketRepository.findById(ticketId)
             .orElseThrow(() -> new RuntimeException("Ticket not found with id: " + ticketId));
         
+        TicketStatus oldStatus = ticket.getStatus();
         ticket.setStatus(status);
         
         if (status == TicketStatus.CLOSED || status == TicketStatus.RESOLVED) {
@@ -166,12 +363,101 @@ public class TicketService {
         }
         
         ticketRepository.save(ticket);
+        ticketCounterService.recordChanged(oldStatus, status, ticket.getPriority(), ticket.getPriority(),
+            assigneeId(ticket), assigneeId(ticket));
+        ticketHistoryRecorder.record(ticketId, actorId, oldStatus, status, assigneeId(ticket), assigneeId(ticket), null);
+        ticketEventBus.publishTicketUpdated(ticket, oldStatus, assigneeId(ticket));
+        queueChanged(ticket);
+    }
+    
+    /**
+     * Assigns the open ticket with the earliest SLA deadline to the agent and moves it to
+     * IN_PROGRESS. Returns null when no ticket is waiting.
+     */
+    public TicketDto claimNextTicket(Long agentId) {
+        // Read in this transaction rather than from the cache, which may not have seen a deactivation on another node
+        User agent = userRepository.findById(agentId)
+            .orElseThrow(() -> new RuntimeException("Agent not found with id: " + agentId));
+        if (!agent.isActive()) {
+            throw new RuntimeException("Agent is not active with id: " + agentId);
+        }
+        
+        // Every stale id costs a locking SELECT in this transaction, so give up after a few
+        for (int probe = 0; probe < maxClaimProbes; probe++) {
+            Long ticketId = agentWorkQueue.poll();
+            if (ticketId == null) {
+                return null;
+            }
+            // Empty when the ticket was claimed, assigned or closed meanwhile, or another transaction holds its row lock
+            Ticket ticket = ticketRepository.findClaimable(ticketId, TicketStatus.OPEN).orElse(null);
+            if (ticket == null) {
+                // Locked but still waiting: queue it again in case the lock holder leaves it unassigned
+                ticketRepository.findUnassignedById(ticketId, TicketStatus.OPEN).ifPresent(waiting ->
+                    agentWorkQueue.ticketChanged(waiting.getId(), TicketStatus.OPEN, waiting.getPriority(), null, waiting.getCreatedAt()));
+                continue;
+            }
+            ticket.setAssignee(agent);
+            ticket.setStatus(TicketStatus.IN_PROGRESS);
+            Ticket savedTicket = ticketRepository.save(ticket);
+            ticketSearchService.reindexAfterCommit(ticketId);
+            ticketCounterService.recordChanged(TicketStatus.OPEN, TicketStatus.IN_PROGRESS, ticket.getPriority(),
+                ticket.getPriority(), null, agentId);
+            ticketHistoryRecorder.record(ticketId, agentId, TicketStatus.OPEN, TicketStatus.IN_PROGRESS, null, agentId, null);
+            ticketEventBus.publishTicketUpdated(savedTicket, TicketStatus.OPEN, null);
+            queueChanged(savedTicket);
+            return convertToDto(savedTicket);
+        }
+        log.debug("No claimable ticket for agent {} within {} queue entries", agentId, maxClaimProbes);
+        return null;
+    }
+    
+    @Transactional(readOnly = true)
+    public List<TicketHistoryDto> getTicketHistory(Long ticketId) {
+        if (!ticketRepository.existsById(ticketId)) {
+            throw new RuntimeException("Ticket not found with id: " + ticketId);
+        }
+        return ticketHistoryRepository.findByTicketId(ticketId).stream()
+            .map(this::convertToDto)
+            .collect(Collectors.toList());
+    }
+    
+    public TicketStatsDto getTicketStats() {
+        return ticketCounterService.getStats();
+    }
+    
+    /** The strong ETag of a ticket read by id or code or returned by an update; matches {@link #getTicketVersion}. */
+    public ResourceVersion versionOf(TicketDto ticket) {
+        return ResourceVersion.ofEntity(ticket.getVersion(), ticket.getUpdatedAt(), ticket.getOwner().getUpdatedAt(),
+            ticket.getAssignee() != null ? ticket.getAssignee().getUpdatedAt() : null);
+    }
+    
+    private ResourceVersion toResourceVersion(TicketRepository.VersionStamp stamp) {
+        // Owner/assignee stamps are included because the DTO embeds their names and emails
+        return ResourceVersion.ofEntity(stamp.getVersion(), stamp.getUpdatedAt(), stamp.getOwnerUpdatedAt(),
+            stamp.getAssigneeUpdatedAt());
+    }
+    
+    private Long assigneeId(Ticket ticket) {
+        return ticket.getAssignee() != null ? ticket.getAssignee().getId() : null;
+    }
+    
+    private void queueChanged(Ticket ticket) {
+        agentWorkQueue.ticketChanged(ticket.getId(), ticket.getStatus(), ticket.getPriority(), assigneeId(ticket),
+            ticket.getCreatedAt());
+    }
+    
+    private void requireUser(Long userId, String role) {
+        try {
+            userCacheService.getUser(userId);
+        } catch (RuntimeException e) {
+            throw new RuntimeException(role + " not found with id: " + userId);
+        }
     }
     
-    private String generateTicketCode() {
-        String prefix = "TKT";
-        String timestamp = String.valueOf(System.currentTimeMillis());
-        return prefix + timestamp.substring(timestamp.length() - 8);
+    private void requireActor(Long actorId) {
+        if (actorId != null) {
+            requireUser(actorId, "Actor");
+        }
     }
     
     private TicketDto convertToDto(Ticket ticket) {
@@ -187,15 +473,69 @@ public class TicketService {
         dto.setClosedAt(ticket.getClosedAt());
         dto.setCreatedAt(ticket.getCreatedAt());
         dto.setUpdatedAt(ticket.getUpdatedAt());
+        dto.setVersion(ticket.getVersion());
         return dto;
     }
     
-    private org.example.ticketingproject.dto.UserDto convertUserToDto(User user) {
+    private TicketDto convertToDto(TicketSummaryDto summary) {
+        TicketDto dto = new TicketDto();
+        dto.setId(summary.getId());
+        dto.setCode(summary.getCode());
+        dto.setSubject(summary.getSubject());
+        dto.setStatus(summary.getStatus().name());
+        dto.setPriority(summary.getPriority().name());
+        dto.setOwner(convertUserToDto(summary.getOwnerId(), summary.getOwnerFullName(),
+            summary.getOwnerEmail(), summary.getOwnerActive()));
+        dto.setAssignee(summary.getAssigneeId() != null
+            ? convertUserToDto(summary.getAssigneeId(), summary.getAssigneeFullName(),
+                summary.getAssigneeEmail(), summary.getAssigneeActive())
+            : null);
+        dto.setClosedAt(summary.getClosedAt());
+        dto.setCreatedAt(summary.getCreatedAt());
+        dto.setUpdatedAt(summary.getUpdatedAt());
+        dto.setVersion(summary.getVersion());
+        return dto;
+    }
+    
+    private TicketHistoryDto convertToDto(TicketHistory history) {
+        TicketHistoryDto dto = new TicketHistoryDto();
+        dto.setId(history.getId());
+        dto.setTicketId(history.getTicket().getId());
+        dto.setActor(history.getActor() != null ? historyUser(history.getActor().getId()) : null);
+        dto.setFromStatus(history.getFromStatus() != null ? history.getFromStatus().name() : null);
+        dto.setToStatus(history.getToStatus() != null ? history.getToStatus().name() : null);
+        dto.setFromAssignee(history.getFromAssignee() != null ? historyUser(history.getFromAssignee().getId()) : null);
+        dto.setToAssignee(history.getToAssignee() != null ? historyUser(history.getToAssignee().getId()) : null);
+        dto.setAt(history.getAt());
+        dto.setNote(history.getNote());
+        return dto;
+    }
+    
+    private org.example.ticketingproject.dto.UserDto historyUser(Long userId) {
+        // History outlives users; a deleted user is reported by id only
+        try {
+            return userCacheService.getUser(userId);
+        } catch (RuntimeException e) {
+            return convertUserToDto(userId, null, null, false);
+        }
+    }
+    
+    private org.example.ticketingproject.dto.UserDto convertUserToDto(Long id, String fullName, String email, Boolean active) {
         org.example.ticketingproject.dto.UserDto userDto = new org.example.ticketingproject.dto.UserDto();
-        userDto.setId(user.getId());
-        userDto.setFullName(user.getFullName());
-        userDto.setEmail(user.getEmail());
-        userDto.setActive(user.isActive());
+        userDto.setId(id);
+        userDto.setFullName(fullName);
+        userDto.setEmail(email);
+        userDto.setActive(Boolean.TRUE.equals(active));
         return userDto;
     }
+    
+    private org.example.ticketingproject.dto.UserDto convertUserToDto(User user) {
+        // Owner/assignee rows fetched with the ticket are used as read, so the body matches the user
+        // stamps in the ETag even when this node's user cache is stale; bare proxies (a ticket just
+        // created or claimed) are served from the cache instead of being initialized
+        if (Hibernate.isInitialized(user)) {
+            return UserCacheService.toSummary(user);
+        }
+        return userCacheService.getUser(user.getId());
+    }
 }
@@ -0,0 +1,69 @@
+package org.example.ticketingproject.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Sort keys clients may use on the ticket list endpoints.
+ * <p>
+ * Every key expands to the columns of the index that serves it, followed by {@code id} so equal
+ * values never reorder between pages. A key is only honoured in the scopes where such an index
+ * exists (see {@code Ticket}'s {@code @Table} indexes); elsewhere it is downgraded to
+ * {@code createdAt} in the requested direction, which every scope can read in index order.
+ * Keys not listed here are rejected.
+ */
+@Component
+public class TicketSortRegistry {
+    
+    private static final Logger log = LoggerFactory.getLogger(TicketSortRegistry.class);
+    
+    public static final String DEFAULT_SORT = "createdAt";
+    
+    /** Which rows a listing is restricted to, and therefore which index its ORDER BY can use. */
+    public enum Scope {
+        ALL,
+        OWNER,
+        ASSIGNEE,
+        STATUS,
+        PRIORITY,
+        /**
+         * Query with an equality filter on a selective indexed column (owner or assignee), so the rows
+         * are narrowed through that index before the sort; any listed key is allowed.
+         */
+        FILTERED
+    }
+    
+    private static final Map<String, SortKey> SORT_KEYS = Map.of(
+        "createdAt", new SortKey(List.of("createdAt"), EnumSet.allOf(Scope.class)),
+        "closedAt", new SortKey(List.of("closedAt"), EnumSet.of(Scope.ALL, Scope.FILTERED)),
+        "code", new SortKey(List.of("code"), EnumSet.of(Scope.ALL, Scope.FILTERED)),
+        "status", new SortKey(List.of("status", "createdAt"), EnumSet.of(Scope.ALL, Scope.ASSIGNEE, Scope.FILTERED)),
+        "priority", new SortKey(List.of("priority", "createdAt"), EnumSet.of(Scope.ALL, Scope.FILTERED)));
+    
+    public Pageable pageable(int page, int size, String sortBy, String sortDir, Scope scope) {
+        SortKey key = SORT_KEYS.get(sortBy);
+        if (key == null) {
+            throw new RuntimeException("Unsupported sort field: " + sortBy + "; allowed: " + new TreeSet<>(SORT_KEYS.keySet()));
+        }
+        if (!key.scopes().contains(scope)) {
+            log.debug("Sort on {} has no index for {} listings, using {}", sortBy, scope, DEFAULT_SORT);
+            key = SORT_KEYS.get(DEFAULT_SORT);
+        }
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(direction, key.properties().toArray(String[]::new)).and(Sort.by(direction, "id"));
+        return PageRequest.of(page, size, sort);
+    }
+    
+    private record SortKey(List<String> properties, Set<Scope> scopes) {
+    }
+}
@@ -0,0 +1,370 @@
+package org.example.ticketingproject.service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.example.ticketingproject.dto.BulkItemResultDto;
+import org.example.ticketingproject.dto.BulkResultDto;
+import org.example.ticketingproject.dto.CreateUserDto;
+import org.example.ticketingproject.entity.Role;
+import org.example.ticketingproject.entity.RoleName;
+import org.example.ticketingproject.repository.RoleRepository;
+import org.example.ticketingproject.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * User provisioning for customer onboarding, the user counterpart of {@link TicketBulkService}.
+ * <p>
+ * Items are processed in chunks of {@code ticketing.bulk.batch-size}. Emails are checked against
+ * the request and the database with one IN query per chunk, role names are resolved from a map
+ * loaded once per request, the passwords of the accepted rows are hashed in parallel on the
+ * {@link PasswordHashingService} pool before any transaction starts, and users plus their
+ * user_roles rows are written with JDBC batch inserts. Invalid rows are reported per index.
+ */
+@Service
+public class UserBulkService {
+    
+    private static final Logger log = LoggerFactory.getLogger(UserBulkService.class);
+    
+    private static final String INSERT_USER_SQL =
+        "INSERT INTO users (full_name, email, password_hash, active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+    
+    private static final String INSERT_USER_ROLE_SQL = "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+    
+    private static final List<String> CSV_COLUMNS = List.of("fullname", "email", "password", "roles");
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private RoleRepository roleRepository;
+    
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Value("${ticketing.bulk.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${ticketing.bulk.max-items:10000}")
+    private int maxItems;
+    
+    public BulkResultDto createUsers(List<CreateUserDto> items) {
+        if (items.size() > maxItems) {
+            throw new RuntimeException("Bulk request exceeds the limit of " + maxItems + " users; use the CSV variant");
+        }
+        long started = System.nanoTime();
+        Import state = new Import(loadRoles());
+        for (int from = 0; from < items.size(); from += batchSize) {
+            List<CreateUserDto> chunk = items.subList(from, Math.min(from + batchSize, items.size()));
+            List<Integer> indexes = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                indexes.add(from + i);
+            }
+            processChunk(chunk, indexes, state);
+        }
+        return finish(state.result, started);
+    }
+    
+    /**
+     * Imports a CSV with a header row naming the columns {@code fullName}, {@code email},
+     * {@code password} and optionally {@code roles} (separated by {@code ;} or {@code |}), in
+     * any order. Fields may be quoted with {@code "}; row indexes count data rows from 0.
+     */
+    public BulkResultDto createUsers(InputStream csv) throws IOException {
+        long started = System.nanoTime();
+        Import state = new Import(loadRoles());
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null) {
+            throw new RuntimeException("CSV is empty; expected a header row");
+        }
+        Map<String, Integer> columns = parseHeader(header);
+        
+        List<CreateUserDto> chunk = new ArrayList<>(batchSize);
+        List<Integer> indexes = new ArrayList<>(batchSize);
+        int index = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                chunk.add(toUser(parseCsvLine(line), columns));
+                indexes.add(index);
+            } catch (IllegalArgumentException e) {
+                state.result.getResults().add(new BulkItemResultDto(index, null, null, "Malformed CSV row: " + e.getMessage()));
+            }
+            index++;
+            if (chunk.size() == batchSize) {
+                processChunk(chunk, indexes, state);
+                chunk.clear();
+                indexes.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, indexes, state);
+        }
+        state.result.setReceived(index);
+        return finish(state.result, started);
+    }
+    
+    private void processChunk(List<CreateUserDto> chunk, List<Integer> indexes, Import state) {
+        Set<String> emails = chunk.stream()
+            .map(CreateUserDto::getEmail)
+            .filter(email -> email != null && !email.isBlank())
+            .collect(Collectors.toSet());
+        // Compared case-insensitively, like the unique index under MySQL's default collation
+        Set<String> existingEmails = emails.isEmpty() ? Set.of() : userRepository.findEmailsByEmailIn(emails).stream()
+            .map(email -> email.toLowerCase(Locale.ROOT))
+            .collect(Collectors.toSet());
+        
+        List<CreateUserDto> accepted = new ArrayList<>();
+        List<List<Long>> acceptedRoleIds = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            CreateUserDto item = chunk.get(i);
+            List<Long> roleIds = new ArrayList<>();
+            String error = validate(item, existingEmails, state, roleIds);
+            if (error != null) {
+                state.result.getResults().add(new BulkItemResultDto(indexes.get(i), null, item.getEmail(), error));
+            } else {
+                accepted.add(item);
+                acceptedRoleIds.add(roleIds);
+                acceptedIndexes.add(indexes.get(i));
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+        
+        try {
+            List<String> passwordHashes = passwordHashingService.encodeAll(
+                accepted.stream().map(CreateUserDto::getPassword).collect(Collectors.toList()));
+            List<Long> ids = transactionTemplate.execute(status -> {
+                List<Long> insertedIds = insertUsers(accepted, passwordHashes, Instant.now());
+                insertUserRoles(insertedIds, acceptedRoleIds);
+                return insertedIds;
+            });
+            for (int i = 0; i < accepted.size(); i++) {
+                state.result.getResults().add(new BulkItemResultDto(acceptedIndexes.get(i), ids.get(i), accepted.get(i).getEmail(), null));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Bulk user batch of {} items failed", accepted.size(), e);
+            for (int i = 0; i < accepted.size(); i++) {
+                state.result.getResults().add(new BulkItemResultDto(acceptedIndexes.get(i), null, accepted.get(i).getEmail(),
+                    "Batch insert failed: " + e.getMessage()));
+            }
+        }
+    }
+    
+    private String validate(CreateUserDto item, Set<String> existingEmails, Import state, List<Long> roleIds) {
+        Set<ConstraintViolation<CreateUserDto>> violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+        }
+        String email = item.getEmail().toLowerCase(Locale.ROOT);
+        if (existingEmails.contains(email)) {
+            return "User with email " + item.getEmail() + " already exists";
+        }
+        Set<String> roleNames = item.getRoleNames() != null && !item.getRoleNames().isEmpty()
+            ? item.getRoleNames()
+            : Set.of(RoleName.USER.name());
+        for (String roleName : roleNames) {
+            Long roleId = resolveRole(roleName, state.roleIds);
+            if (roleId == null) {
+                return "Role " + roleName + " not found";
+            }
+            roleIds.add(roleId);
+        }
+        // Checked last so a row rejected for another reason does not claim the email
+        if (!state.emails.add(email)) {
+            return "Duplicate email " + item.getEmail() + " earlier in this request";
+        }
+        return null;
+    }
+    
+    private Long resolveRole(String roleName, Map<RoleName, Long> roleIds) {
+        try {
+            return roleIds.get(RoleName.valueOf(roleName.trim().toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    private Map<RoleName, Long> loadRoles() {
+        Map<RoleName, Long> roleIds = new EnumMap<>(RoleName.class);
+        for (Role role : roleRepository.findAll()) {
+            roleIds.put(role.getName(), role.getId());
+        }
+        return roleIds;
+    }
+    
+    private List<Long> insertUsers(List<CreateUserDto> items, List<String> passwordHashes, Instant createdAt) {
+        OffsetDateTime now = createdAt.atOffset(ZoneOffset.UTC);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            connection -> connection.prepareStatement(INSERT_USER_SQL, new String[]{"id"}),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    CreateUserDto item = items.get(i);
+                    ps.setString(1, item.getFullName());
+                    ps.setString(2, item.getEmail());
+                    ps.setString(3, passwordHashes.get(i));
+                    ps.setBoolean(4, true);
+                    ps.setObject(5, now);
+                    ps.setObject(6, now);
+                }
+                
+                @Override
+                public int getBatchSize() {
+                    return items.size();
+                }
+            },
+            keyHolder);
+        return keyHolder.getKeyList().stream()
+            .map(Map::values)
+            .map(values -> ((Number) values.iterator().next()).longValue())
+            .collect(Collectors.toList());
+    }
+    
+    private void insertUserRoles(List<Long> userIds, List<List<Long>> roleIds) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            for (Long roleId : roleIds.get(i)) {
+                rows.add(new Object[]{userIds.get(i), roleId});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_USER_ROLE_SQL, rows);
+    }
+    
+    private Map<String, Integer> parseHeader(String header) {
+        // Spreadsheet exports often start with a byte order mark
+        List<String> names = parseCsvLine(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT);
+            if (!CSV_COLUMNS.contains(name)) {
+                throw new RuntimeException("Unknown CSV column: " + names.get(i) + "; expected " + CSV_COLUMNS);
+            }
+            columns.put(name, i);
+        }
+        for (String required : List.of("fullname", "email", "password")) {
+            if (!columns.containsKey(required)) {
+                throw new RuntimeException("CSV header is missing the " + required + " column");
+            }
+        }
+        return columns;
+    }
+    
+    private CreateUserDto toUser(List<String> fields, Map<String, Integer> columns) {
+        if (fields.size() != columns.size()) {
+            throw new IllegalArgumentException("expected " + columns.size() + " fields, found " + fields.size());
+        }
+        CreateUserDto user = new CreateUserDto();
+        user.setFullName(fields.get(columns.get("fullname")).trim());
+        user.setEmail(fields.get(columns.get("email")).trim());
+        user.setPassword(fields.get(columns.get("password")));
+        Integer roles = columns.get("roles");
+        if (roles != null && !fields.get(roles).isBlank()) {
+            user.setRoleNames(Arrays.stream(fields.get(roles).split("[;|]"))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+        }
+        return user;
+    }
+    
+    /** Splits one CSV record; quoted fields may contain commas and doubled quotes, not line breaks. */
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+    
+    private BulkResultDto finish(BulkResultDto result, long started) {
+        result.complete(started);
+        log.info("Bulk user import: {} received, {} created, {} failed in {} ms ({} users/s)",
+            result.getReceived(), result.getCreated(), result.getFailed(), result.getElapsedMillis(),
+            Math.round(result.getItemsPerSecond()));
+        return result;
+    }
+    
+    /** Per-request state: the role map and the emails already taken by earlier rows. */
+    private static final class Import {
+        final BulkResultDto result = new BulkResultDto();
+        final Map<RoleName, Long> roleIds;
+        final Set<String> emails = new HashSet<>();
+        
+        Import(Map<RoleName, Long> roleIds) {
+            this.roleIds = roleIds;
+        }
+    }
+}
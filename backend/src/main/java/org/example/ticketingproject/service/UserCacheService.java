@@ -0,0 +1,241 @@
+package org.example.ticketingproject.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import org.example.ticketingproject.dto.UserDto;
+import org.example.ticketingproject.entity.Role;
+import org.example.ticketingproject.entity.RoleName;
+import org.example.ticketingproject.entity.User;
+import org.example.ticketingproject.entity.UserCacheInvalidation;
+import org.example.ticketingproject.repository.RoleRepository;
+import org.example.ticketingproject.repository.UserCacheInvalidationRepository;
+import org.example.ticketingproject.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through cache for the user data the ticket and comment hot paths need: user summaries,
+ * per-user role names and the role rows themselves. Entries are bounded and expire by TTL; user
+ * entries are evicted explicitly whenever {@link UserService} changes or removes a user.
+ * <p>
+ * Other nodes learn of the change through a row in {@code user_cache_invalidations}, which each
+ * node polls every {@code ticketing.cache.invalidation-poll-ms}; that interval bounds how long
+ * another node can keep serving the old user.
+ * <p>
+ * Summaries are handed out as copies, so callers are free to modify what they get back.
+ */
+@Service
+public class UserCacheService {
+    
+    public static final String USERS = "users";
+    public static final String USER_ROLES = "userRoles";
+    public static final String ROLES = "roles";
+    
+    private static final Logger log = LoggerFactory.getLogger(UserCacheService.class);
+    
+    // Rows are re-read for this long, covering commit delay, clock skew between nodes and replica lag
+    private static final Duration INVALIDATION_OVERLAP = Duration.ofMinutes(1);
+    private static final Duration INVALIDATION_RETENTION = Duration.ofHours(1);
+    private static final String PRUNE_LOCK = "user-cache-invalidations-prune";
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private RoleRepository roleRepository;
+    
+    @Autowired
+    private UserCacheInvalidationRepository invalidationRepository;
+    
+    @Autowired
+    private SchedulerLocks schedulerLocks;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private TaskScheduler taskScheduler;
+    
+    @Value("${ticketing.replicas.urls:}")
+    private String replicaUrls;
+    
+    @Value("${ticketing.replicas.max-lag-seconds:5}")
+    private long replicaMaxLagSeconds;
+    
+    private Cache<Object, Object> users;
+    private Cache<Object, Object> userRoles;
+    private Cache<Object, Object> roles;
+    
+    private volatile Instant invalidatedUntil = Instant.now();
+    
+    @PostConstruct
+    void init() {
+        users = nativeCache(USERS);
+        userRoles = nativeCache(USER_ROLES);
+        roles = nativeCache(ROLES);
+    }
+    
+    public UserDto getUser(Long id) {
+        UserDto user = (UserDto) users.get(id, key -> userRepository.findById(id).map(UserCacheService::toSummary).orElse(null));
+        if (user == null) {
+            throw new RuntimeException("User not found with id: " + id);
+        }
+        return copy(user);
+    }
+    
+    public Map<Long, UserDto> getUsers(Collection<Long> ids) {
+        Map<Object, Object> found = users.getAll(new HashSet<>(ids), missing -> userRepository
+            .findAllById(missing.stream().map(Long.class::cast).collect(Collectors.toList()))
+            .stream()
+            .collect(Collectors.toMap(User::getId, UserCacheService::toSummary)));
+        Map<Long, UserDto> result = new HashMap<>();
+        found.forEach((id, user) -> result.put((Long) id, copy((UserDto) user)));
+        return result;
+    }
+    
+    @SuppressWarnings("unchecked")
+    public Set<String> getRoleNames(Long userId) {
+        return (Set<String>) userRoles.get(userId, key -> Set.copyOf(userRepository.findRoleNamesByUserIdIn(List.of(userId))
+            .stream()
+            .map(UserRepository.UserRoleName::getRoleName)
+            .map(RoleName::name)
+            .collect(Collectors.toSet())));
+    }
+    
+    @SuppressWarnings("unchecked")
+    public Map<Long, Set<String>> getRoleNames(Collection<Long> userIds) {
+        Map<Object, Object> found = userRoles.getAll(new HashSet<>(userIds), missing -> {
+            Map<Object, Object> loaded = new HashMap<>();
+            missing.forEach(id -> loaded.put(id, new HashSet<String>()));
+            userRepository.findRoleNamesByUserIdIn(missing.stream().map(Long.class::cast).collect(Collectors.toList()))
+                .forEach(row -> ((Set<String>) loaded.get(row.getUserId())).add(row.getRoleName().name()));
+            loaded.replaceAll((id, names) -> Set.copyOf((Set<String>) names));
+            return loaded;
+        });
+        Map<Long, Set<String>> result = new HashMap<>();
+        found.forEach((id, names) -> result.put((Long) id, (Set<String>) names));
+        return result;
+    }
+    
+    public Role getRole(RoleName name) {
+        Role role = (Role) roles.get(name, key -> roleRepository.findByName(name).orElse(null));
+        if (role == null) {
+            throw new RuntimeException("Role " + name + " not found");
+        }
+        return role;
+    }
+    
+    public void evictUser(Long id) {
+        users.invalidate(id);
+        userRoles.invalidate(id);
+        // Written in the caller's transaction, so other nodes only see it once the change commits
+        UserCacheInvalidation invalidation = new UserCacheInvalidation();
+        invalidation.setUserId(id);
+        invalidation.setCreatedAt(Instant.now());
+        invalidationRepository.save(invalidation);
+        // Evict again once committed so a concurrent reader cannot re-cache the pre-commit row
+        TransactionHooks.afterCommit(() -> {
+            users.invalidate(id);
+            userRoles.invalidate(id);
+            if (!replicaUrls.isBlank()) {
+                // A read on a lagging replica may re-cache the old row until the change has replicated
+                taskScheduler.schedule(() -> {
+                    users.invalidate(id);
+                    userRoles.invalidate(id);
+                }, Instant.now().plusSeconds(replicaMaxLagSeconds + 1));
+            }
+        });
+    }
+    
+    @Scheduled(initialDelayString = "${ticketing.cache.invalidation-poll-ms:5000}",
+               fixedDelayString = "${ticketing.cache.invalidation-poll-ms:5000}")
+    void pollInvalidations() {
+        Instant started = Instant.now();
+        Instant since = invalidatedUntil.minus(INVALIDATION_OVERLAP);
+        try {
+            List<Long> ids = ReadRouting.onPrimary(() -> invalidationRepository.findUserIdsCreatedSince(since));
+            users.invalidateAll(ids);
+            userRoles.invalidateAll(ids);
+            invalidatedUntil = started;
+        } catch (RuntimeException e) {
+            log.warn("Failed to poll user cache invalidations", e);
+        }
+    }
+    
+    @Scheduled(initialDelay = 600_000, fixedDelay = 600_000)
+    void pruneInvalidations() {
+        if (!schedulerLocks.tryAcquire(PRUNE_LOCK, Duration.ofMinutes(10))) {
+            return;
+        }
+        try {
+            int pruned = invalidationRepository.deleteCreatedBefore(Instant.now().minus(INVALIDATION_RETENTION));
+            log.debug("Pruned {} user cache invalidations", pruned);
+        } catch (RuntimeException e) {
+            log.warn("Failed to prune user cache invalidations", e);
+        }
+    }
+    
+    public Map<String, Map<String, Number>> getStats() {
+        Map<String, Map<String, Number>> stats = new LinkedHashMap<>();
+        Map.of(USERS, users, USER_ROLES, userRoles, ROLES, roles).entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .forEach(entry -> {
+                CacheStats cacheStats = entry.getValue().stats();
+                Map<String, Number> values = new LinkedHashMap<>();
+                values.put("size", entry.getValue().estimatedSize());
+                values.put("hitCount", cacheStats.hitCount());
+                values.put("missCount", cacheStats.missCount());
+                values.put("hitRate", cacheStats.hitRate());
+                values.put("evictionCount", cacheStats.evictionCount());
+                stats.put(entry.getKey(), values);
+            });
+        return stats;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> nativeCache(String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+    }
+    
+    /** The summary the hot paths embed for a user, built from a loaded row. */
+    public static UserDto toSummary(User user) {
+        UserDto dto = new UserDto();
+        dto.setId(user.getId());
+        dto.setFullName(user.getFullName());
+        dto.setEmail(user.getEmail());
+        dto.setActive(user.isActive());
+        dto.setCreatedAt(user.getCreatedAt());
+        dto.setUpdatedAt(user.getUpdatedAt());
+        return dto;
+    }
+    
+    private UserDto copy(UserDto user) {
+        UserDto dto = new UserDto();
+        dto.setId(user.getId());
+        dto.setFullName(user.getFullName());
+        dto.setEmail(user.getEmail());
+        dto.setActive(user.isActive());
+        dto.setCreatedAt(user.getCreatedAt());
+        dto.setUpdatedAt(user.getUpdatedAt());
+        return dto;
+    }
+}
@@ -5,15 +5,22 @@ import org.example.ticketingproject.dto.UserDto;
 import org.example.ticketingproject.entity.Role;
 import org.example.ticketingproject.entity.RoleName;
 import org.example.ticketingproject.entity.User;
-import org.example.ticketingproject.repository.RoleRepository;
 import org.example.ticketingproject.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -24,88 +31,128 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
     
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+    
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+    
     @Autowired
-    private RoleRepository roleRepository;
+    private TransactionTemplate transactionTemplate;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private UserCacheService userCacheService;
     
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserDto createUser(CreateUserDto createUserDto) {
-        if (userRepository.existsByEmail(createUserDto.getEmail())) {
-            throw new RuntimeException("User with email " + createUserDto.getEmail() + " already exists");
+        // Hashed before the transaction starts, so no connection is held while it runs
+        String passwordHash = passwordHashingService.encode(createUserDto.getPassword());
+        return transactionTemplate.execute(status -> {
+            if (userRepository.existsByEmail(createUserDto.getEmail())) {
+                throw new RuntimeException("User with email " + createUserDto.getEmail() + " already exists");
+            }
+            
+            User user = new User();
+            user.setFullName(createUserDto.getFullName());
+            user.setEmail(createUserDto.getEmail());
+            user.setPasswordHash(passwordHash);
+            user.setActive(true);
+            
+            // Set default role if none specified
+            Set<Role> roles = new HashSet<>();
+            if (createUserDto.getRoleNames() != null && !createUserDto.getRoleNames().isEmpty()) {
+                roles = resolveRoles(createUserDto.getRoleNames());
+            } else {
+                // Default role
+                roles.add(userCacheService.getRole(RoleName.USER));
+            }
+            user.setRoles(roles);
+            
+            User savedUser = userRepository.save(user);
+            return convertToDto(savedUser, roleNames(savedUser.getRoles()));
+        });
+    }
+    
+    /**
+     * Checks an email/password pair and returns the user. A hash made with an outdated algorithm
+     * or cost is replaced with a current one, which is only possible while the plain password is
+     * at hand.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UserDto login(String email, String password) {
+        User user = transactionTemplate.execute(status -> userRepository.findByEmail(email).orElse(null));
+        String storedHash = user != null ? user.getPasswordHash() : null;
+        if (!passwordHashingService.matches(password, storedHash) || !user.isActive()) {
+            throw new BadCredentialsException("Invalid email or password");
         }
-        
-        User user = new User();
-        user.setFullName(createUserDto.getFullName());
-        user.setEmail(createUserDto.getEmail());
-        user.setPasswordHash(passwordEncoder.encode(createUserDto.getPassword()));
-        user.setActive(true);
-        
-        // Set default role if none specified
-        Set<Role> roles = new HashSet<>();
-        if (createUserDto.getRoleNames() != null && !createUserDto.getRoleNames().isEmpty()) {
-            roles = createUserDto.getRoleNames().stream()
-                .map(roleName -> roleRepository.findByName(RoleName.valueOf(roleName.toUpperCase()))
-                    .orElseThrow(() -> new RuntimeException("Role " + roleName + " not found")))
-                .collect(Collectors.toSet());
-        } else {
-            // Default role
-            Role defaultRole = roleRepository.findByName(RoleName.USER)
-                .orElseThrow(() -> new RuntimeException("Default role not found"));
-            roles.add(defaultRole);
+        if (passwordHashingService.needsUpgrade(storedHash)) {
+            String upgradedHash = passwordHashingService.encode(password);
+            // Only if the password was not changed in the meantime
+            transactionTemplate.executeWithoutResult(status ->
+                userRepository.updatePasswordHash(user.getId(), storedHash, upgradedHash));
+            log.debug("Upgraded password hash of user {}", user.getId());
         }
-        user.setRoles(roles);
-        
-        User savedUser = userRepository.save(user);
-        return convertToDto(savedUser);
+        return convertToDto(user);
     }
     
+    @Transactional(readOnly = true)
     public UserDto getUserById(Long id) {
         User user = userRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
         return convertToDto(user);
     }
     
+    @Transactional(readOnly = true)
     public UserDto getUserByEmail(String email) {
         User user = userRepository.findByEmail(email)
             .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
         return convertToDto(user);
     }
     
-    public List<UserDto> getAllUsers() {
-        return userRepository.findAll().stream()
-            .map(this::convertToDto)
-            .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public Page<UserDto> getAllUsers(Pageable pageable) {
+        return convertToDtos(userRepository.findAll(pageable));
     }
     
-    public List<UserDto> getActiveUsers() {
-        return userRepository.findByActiveTrue().stream()
-            .map(this::convertToDto)
-            .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public Page<UserDto> getActiveUsers(Pageable pageable) {
+        return convertToDtos(userRepository.findByActiveTrue(pageable));
     }
     
-    public UserDto updateUser(Long id, CreateUserDto updateUserDto) {
-        User user = userRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
-        
-        if (updateUserDto.getFullName() != null) {
-            user.setFullName(updateUserDto.getFullName());
+    @Transactional(readOnly = true)
+    public List<UserDto> searchActiveUsers(String query, Pageable pageable) {
+        String term = query == null ? "" : query.trim();
+        if (term.isEmpty()) {
+            return List.of();
         }
-        
-        if (updateUserDto.getPassword() != null) {
-            user.setPasswordHash(passwordEncoder.encode(updateUserDto.getPassword()));
-        }
-        
-        if (updateUserDto.getRoleNames() != null && !updateUserDto.getRoleNames().isEmpty()) {
-            Set<Role> roles = updateUserDto.getRoleNames().stream()
-                .map(roleName -> roleRepository.findByName(RoleName.valueOf(roleName.toUpperCase()))
-                    .orElseThrow(() -> new RuntimeException("Role " + roleName + " not found")))
-                .collect(Collectors.toSet());
-            user.setRoles(roles);
-        }
-        
-        User savedUser = userRepository.save(user);
-        return convertToDto(savedUser);
+        String prefix = term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return convertToDtos(userRepository.searchActiveByPrefix(prefix, pageable).getContent());
+    }
+    
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UserDto updateUser(Long id, CreateUserDto updateUserDto) {
+        String passwordHash = updateUserDto.getPassword() != null
+            ? passwordHashingService.encode(updateUserDto.getPassword())
+            : null;
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+            
+            if (updateUserDto.getFullName() != null) {
+                user.setFullName(updateUserDto.getFullName());
+            }
+            
+            if (passwordHash != null) {
+                user.setPasswordHash(passwordHash);
+            }
+            
+            if (updateUserDto.getRoleNames() != null && !updateUserDto.getRoleNames().isEmpty()) {
+                user.setRoles(resolveRoles(updateUserDto.getRoleNames()));
+            }
+            
+            User savedUser = userRepository.save(user);
+            userCacheService.evictUser(id);
+            return convertToDto(savedUser, roleNames(savedUser.getRoles()));
+        });
     }
     
     public void deleteUser(Long id) {
@@ -113,6 +160,7 @@ public class UserService {
             throw new RuntimeException("User not found with id: " + id);
         }
         userRepository.deleteById(id);
+        userCacheService.evictUser(id);
     }
     
     public void deactivateUser(Long id) {
@@ -120,17 +168,51 @@ public class UserService {
             .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
         user.setActive(false);
         userRepository.save(user);
+        userCacheService.evictUser(id);
+    }
+    
+    private Set<Role> resolveRoles(Set<String> roleNames) {
+        return roleNames.stream()
+            .map(roleName -> {
+                try {
+                    return userCacheService.getRole(RoleName.valueOf(roleName.toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    throw new RuntimeException("Role " + roleName + " not found");
+                }
+            })
+            .collect(Collectors.toSet());
+    }
+    
+    private Set<String> roleNames(Set<Role> roles) {
+        return roles.stream()
+            .map(role -> role.getName().name())
+            .collect(Collectors.toSet());
+    }
+    
+    private Page<UserDto> convertToDtos(Page<User> users) {
+        return new PageImpl<>(convertToDtos(users.getContent()), users.getPageable(), users.getTotalElements());
+    }
+    
+    private List<UserDto> convertToDtos(List<User> users) {
+        // Roles of the whole page in one lookup rather than one lazy collection per user
+        Map<Long, Set<String>> roleNames = userCacheService.getRoleNames(
+            users.stream().map(User::getId).collect(Collectors.toList()));
+        return users.stream()
+            .map(user -> convertToDto(user, roleNames.getOrDefault(user.getId(), Set.of())))
+            .collect(Collectors.toList());
     }
     
     private UserDto convertToDto(User user) {
+        return convertToDto(user, userCacheService.getRoleNames(user.getId()));
+    }
+    
+    private UserDto convertToDto(User user, Set<String> roleNames) {
         UserDto dto = new UserDto();
         dto.setId(user.getId());
         dto.setFullName(user.getFullName());
         dto.setEmail(user.getEmail());
         dto.setActive(user.isActive());
-        dto.setRoleNames(user.getRoles().stream()
-            .map(role -> role.getName().name())
-            .collect(Collectors.toSet()));
+        dto.setRoleNames(new HashSet<>(roleNames));
         dto.setCreatedAt(user.getCreatedAt());
         dto.setUpdatedAt(user.getUpdatedAt());
         return dto;
@@ -0,0 +1,178 @@
+package org.example.ticketingproject.controller;
+
+import org.example.ticketingproject.dto.CommentDto;
+import org.example.ticketingproject.dto.CreateCommentDto;
+import org.example.ticketingproject.dto.CreateTicketDto;
+import org.example.ticketingproject.dto.TicketDto;
+import org.example.ticketingproject.entity.TicketStatus;
+import org.example.ticketingproject.entity.User;
+import org.example.ticketingproject.repository.UserRepository;
+import org.example.ticketingproject.service.CommentService;
+import org.example.ticketingproject.service.TicketService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Optimistic concurrency on the PUT endpoints: a change made against an outdated {@code If-Match}
+ * or body {@code version} is answered with 409 instead of overwriting the newer state.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConcurrentUpdateTests {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private TicketService ticketService;
+    
+    @Autowired
+    private CommentService commentService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    private Long ownerId;
+    
+    @BeforeEach
+    void setUp() {
+        User owner = new User();
+        owner.setFullName("Concurrency Owner");
+        owner.setEmail(UUID.randomUUID() + "@concurrency.test");
+        owner.setPasswordHash("{noop}unused");
+        ownerId = userRepository.save(owner).getId();
+    }
+    
+    @Test
+    void ticketPutWithStaleEtagConflicts() throws Exception {
+        Long ticketId = createTicket().getId();
+        String etag = mockMvc.perform(get("/api/tickets/" + ticketId)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        
+        MvcResult first = mockMvc.perform(putTicket(ticketId, "First edit of the subject").header(HttpHeaders.IF_MATCH, etag))
+            .andExpect(status().isOk())
+            .andReturn();
+        assertNotEquals(etag, first.getResponse().getHeader(HttpHeaders.ETAG));
+        
+        mockMvc.perform(putTicket(ticketId, "Second edit of the subject").header(HttpHeaders.IF_MATCH, etag))
+            .andExpect(status().isConflict());
+        mockMvc.perform(putTicket(ticketId, "Third edit of the subject")
+                .header(HttpHeaders.IF_MATCH, first.getResponse().getHeader(HttpHeaders.ETAG)))
+            .andExpect(status().isOk());
+    }
+    
+    @Test
+    void ticketPutWithStaleBodyVersionConflicts() throws Exception {
+        TicketDto ticket = createTicket();
+        ticketService.changeTicketStatus(ticket.getId(), TicketStatus.IN_PROGRESS, ownerId);
+        
+        mockMvc.perform(put("/api/tickets/" + ticket.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"subject\":\"Edited from a stale copy\",\"version\":" + ticket.getVersion() + "}"))
+            .andExpect(status().isConflict());
+    }
+    
+    @Test
+    void ticketPutWithWeakEtagConflicts() throws Exception {
+        Long ticketId = createTicket().getId();
+        
+        mockMvc.perform(putTicket(ticketId, "Edited with a weak tag").header(HttpHeaders.IF_MATCH, "W/\"0\""))
+            .andExpect(status().isConflict());
+    }
+    
+    @Test
+    void concurrentTicketPutsWithTheSameEtagLetOneThrough() throws Exception {
+        Long ticketId = createTicket().getId();
+        String etag = mockMvc.perform(get("/api/tickets/" + ticketId)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        ExecutorService clients = Executors.newFixedThreadPool(6);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                String subject = "Concurrent edit number " + i;
+                statuses.add(clients.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(putTicket(ticketId, subject).header(HttpHeaders.IF_MATCH, etag))
+                        .andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+            int ok = 0;
+            int conflicts = 0;
+            for (Future<Integer> result : statuses) {
+                int code = result.get(30, TimeUnit.SECONDS);
+                if (code == 200) {
+                    ok++;
+                } else if (code == 409) {
+                    conflicts++;
+                }
+            }
+            assertEquals(1, ok);
+            assertEquals(5, conflicts);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+    
+    @Test
+    void commentPutWithStaleEtagConflicts() throws Exception {
+        CommentDto comment = createComment(createTicket().getId());
+        String etag = mockMvc.perform(get("/api/comments/" + comment.getId())).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        
+        mockMvc.perform(putComment(comment.getId(), "First edit").header(HttpHeaders.IF_MATCH, etag))
+            .andExpect(status().isOk());
+        mockMvc.perform(putComment(comment.getId(), "Second edit").header(HttpHeaders.IF_MATCH, etag))
+            .andExpect(status().isConflict());
+        mockMvc.perform(putComment(comment.getId(), "Weak edit").header(HttpHeaders.IF_MATCH, "W/" + etag))
+            .andExpect(status().isConflict());
+    }
+    
+    private MockHttpServletRequestBuilder putTicket(Long ticketId, String subject) {
+        return put("/api/tickets/" + ticketId)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"subject\":\"" + subject + "\"}");
+    }
+    
+    private MockHttpServletRequestBuilder putComment(Long commentId, String body) {
+        return put("/api/comments/" + commentId)
+            .param("body", body)
+            .param("authorId", String.valueOf(ownerId));
+    }
+    
+    private TicketDto createTicket() {
+        CreateTicketDto dto = new CreateTicketDto();
+        dto.setSubject("Concurrency ticket");
+        dto.setDescription("Ticket created by the concurrency tests");
+        dto.setPriority("MEDIUM");
+        return ticketService.createTicket(dto, ownerId);
+    }
+    
+    private CommentDto createComment(Long ticketId) {
+        CreateCommentDto dto = new CreateCommentDto();
+        dto.setTicketId(ticketId);
+        dto.setBody("Concurrency comment");
+        return commentService.createComment(dto, ownerId);
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.ticketingproject.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IfMatchVersionTests {
+    
+    @Test
+    void strongEtagGivesItsVersion() {
+        assertEquals(3L, IfMatchVersion.parse("\"3-9f2c41d0\""));
+    }
+    
+    @Test
+    void bareVersionIsAccepted() {
+        assertEquals(3L, IfMatchVersion.parse("\"3\""));
+        assertEquals(3L, IfMatchVersion.parse("3"));
+        assertEquals(12L, IfMatchVersion.parse("  \"12\"  "));
+    }
+    
+    @Test
+    void absentHeaderOrAnyVersionSkipsTheCheck() {
+        assertNull(IfMatchVersion.parse(null));
+        assertNull(IfMatchVersion.parse(""));
+        assertNull(IfMatchVersion.parse("*"));
+    }
+    
+    @Test
+    void weakEtagFailsThePrecondition() {
+        assertThrows(OptimisticLockingFailureException.class, () -> IfMatchVersion.parse("W/\"3-9f2c41d0\""));
+    }
+    
+    @Test
+    void malformedHeaderIsABadRequest() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> IfMatchVersion.parse("\"abc\""));
+        assertEquals(RuntimeException.class, e.getClass());
+    }
+}
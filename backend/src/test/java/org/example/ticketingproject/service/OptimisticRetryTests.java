@@ -0,0 +1,127 @@
+package org.example.ticketingproject.service;
+
+import org.example.ticketingproject.dto.CreateTicketDto;
+import org.example.ticketingproject.dto.TicketDto;
+import org.example.ticketingproject.entity.Ticket;
+import org.example.ticketingproject.entity.TicketStatus;
+import org.example.ticketingproject.entity.User;
+import org.example.ticketingproject.repository.TicketRepository;
+import org.example.ticketingproject.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Makes another connection bump a ticket's version while a status change or assignment is in
+ * flight, so its commit loses the optimistic-lock race for real and has to be retried.
+ */
+@SpringBootTest
+class OptimisticRetryTests {
+    
+    private static final int MAX_ATTEMPTS = 3;
+    
+    @Autowired
+    private TicketService ticketService;
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @MockitoSpyBean
+    private TicketHistoryRecorder ticketHistoryRecorder;
+    
+    private Long ownerId;
+    
+    private Long agentId;
+    
+    @BeforeEach
+    void setUp() {
+        ownerId = createUser("Retry Owner");
+        agentId = createUser("Retry Agent");
+    }
+    
+    @Test
+    void statusChangeIsRetriedAfterAConflict() {
+        Long ticketId = createTicket().getId();
+        conflictOn(ticketId, 1);
+        
+        ticketService.changeTicketStatus(ticketId, TicketStatus.IN_PROGRESS, ownerId);
+        
+        Ticket ticket = ticketRepository.findById(ticketId).orElseThrow();
+        assertEquals(TicketStatus.IN_PROGRESS, ticket.getStatus());
+        // One bump from the competing writer, one from the retried change
+        assertEquals(2L, ticket.getVersion());
+        verify(ticketHistoryRecorder, times(2)).record(eq(ticketId), any(), any(), any(), any(), any(), any());
+    }
+    
+    @Test
+    void assignmentIsRetriedAfterAConflict() {
+        Long ticketId = createTicket().getId();
+        conflictOn(ticketId, 2);
+        
+        ticketService.assignTicket(ticketId, agentId, ownerId);
+        
+        Ticket ticket = ticketRepository.findById(ticketId).orElseThrow();
+        assertEquals(agentId, ticket.getAssignee().getId());
+        assertEquals(3L, ticket.getVersion());
+    }
+    
+    @Test
+    void conflictOnEveryAttemptIsReported() {
+        Long ticketId = createTicket().getId();
+        conflictOn(ticketId, MAX_ATTEMPTS);
+        
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+            () -> ticketService.changeTicketStatus(ticketId, TicketStatus.RESOLVED, ownerId));
+        assertEquals(TicketStatus.OPEN, ticketRepository.findById(ticketId).orElseThrow().getStatus());
+    }
+    
+    /** The first {@code attempts} changes to the ticket see its row updated behind their back before they commit. */
+    private void conflictOn(Long ticketId, int attempts) {
+        int[] remaining = {attempts};
+        doAnswer(invocation -> {
+            if (remaining[0]-- > 0) {
+                // Own connection, so the update commits ahead of the change in progress on this thread
+                CompletableFuture.runAsync(() -> jdbcTemplate.update(
+                    "UPDATE tickets SET version = version + 1 WHERE id = ?", ticketId)).join();
+            }
+            return invocation.callRealMethod();
+        }).when(ticketHistoryRecorder).record(eq(ticketId), any(), any(), any(), any(), any(), any());
+    }
+    
+    private Long createUser(String fullName) {
+        User user = new User();
+        user.setFullName(fullName);
+        user.setEmail(UUID.randomUUID() + "@retry.test");
+        user.setPasswordHash("{noop}unused");
+        return userRepository.save(user).getId();
+    }
+    
+    private TicketDto createTicket() {
+        CreateTicketDto dto = new CreateTicketDto();
+        dto.setSubject("Retry ticket");
+        dto.setDescription("Ticket created by the retry tests");
+        dto.setPriority("HIGH");
+        return ticketService.createTicket(dto, ownerId);
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.ticketingproject.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises the generator against a hand-driven clock, so bursts, counter overflow and a clock
+ * stepping backwards happen deterministically.
+ */
+class SnowflakeTicketCodeGeneratorTests {
+    
+    private static final long NOW = SnowflakeTicketCodeGenerator.EPOCH + 1_000_000;
+    
+    private static final int SEQUENCES_PER_MILLI = 4096;
+    
+    private final AtomicLong clock = new AtomicLong(NOW);
+    
+    private final SnowflakeTicketCodeGenerator generator = new SnowflakeTicketCodeGenerator(7, clock::get);
+    
+    @Test
+    void sameMillisecondBurstCountsUp() {
+        long previous = -1;
+        for (int i = 0; i < SEQUENCES_PER_MILLI; i++) {
+            long id = generator.nextId();
+            assertEquals(NOW - SnowflakeTicketCodeGenerator.EPOCH, timestamp(id));
+            assertEquals(7, nodeId(id));
+            assertEquals(i, sequence(id));
+            assertTrue(id > previous);
+            previous = id;
+        }
+    }
+    
+    @Test
+    void sequenceOverflowBorrowsTheNextMillisecond() {
+        long last = 0;
+        for (int i = 0; i < SEQUENCES_PER_MILLI; i++) {
+            last = generator.nextId();
+        }
+        
+        long overflow = generator.nextId();
+        
+        assertTrue(overflow > last);
+        assertEquals(timestamp(last) + 1, timestamp(overflow));
+        assertEquals(0, sequence(overflow));
+        
+        // Once the clock reaches the borrowed millisecond the counter carries on from there
+        clock.set(NOW + 1);
+        assertEquals(1, sequence(generator.nextId()));
+    }
+    
+    @Test
+    void clockRegressionKeepsIdsIncreasing() {
+        long before = generator.nextId();
+        clock.set(NOW - 5_000);
+        
+        Set<Long> ids = new HashSet<>();
+        long previous = before;
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            ids.add(id);
+            previous = id;
+        }
+        
+        assertEquals(10_000, ids.size());
+        assertTrue(timestamp(previous) >= timestamp(before));
+    }
+    
+    @Test
+    void nodesIssueDifferentIdsInTheSameMillisecond() {
+        SnowflakeTicketCodeGenerator other = new SnowflakeTicketCodeGenerator(8, clock::get);
+        
+        long id = generator.nextId();
+        long otherId = other.nextId();
+        
+        assertEquals(timestamp(id), timestamp(otherId));
+        assertTrue(id != otherId);
+        assertTrue(!generator.nextCode().equals(other.nextCode()));
+    }
+    
+    @Test
+    void codesKeepTheirWidthAndOrder() {
+        String first = generator.nextCode();
+        String second = generator.nextCode();
+        
+        assertTrue(first.startsWith("TKT"));
+        assertEquals(first.length(), second.length());
+        assertTrue(first.compareTo(second) < 0);
+    }
+    
+    @Test
+    void nodeIdIsRequiredUnderTheProdProfile() {
+        MockEnvironment prod = new MockEnvironment();
+        prod.setActiveProfiles("prod");
+        
+        assertThrows(IllegalStateException.class, () -> SnowflakeTicketCodeGenerator.resolveNodeId(null, prod));
+        assertEquals(3, SnowflakeTicketCodeGenerator.resolveNodeId(3L, prod));
+        assertEquals(0, SnowflakeTicketCodeGenerator.resolveNodeId(null, new MockEnvironment()));
+    }
+    
+    @Test
+    void nodeIdOutOfRangeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeTicketCodeGenerator(1024, clock::get));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeTicketCodeGenerator(-1, clock::get));
+    }
+    
+    private static long timestamp(long id) {
+        return id >>> 22;
+    }
+    
+    private static long nodeId(long id) {
+        return (id >>> 12) & 1023;
+    }
+    
+    private static long sequence(long id) {
+        return id & 4095;
+    }
+}
@@ -0,0 +1,206 @@
+package org.example.ticketingproject.service;
+
+import org.example.ticketingproject.config.SqlStatementCounter;
+import org.example.ticketingproject.dto.CommentDto;
+import org.example.ticketingproject.dto.CreateCommentDto;
+import org.example.ticketingproject.dto.CreateTicketDto;
+import org.example.ticketingproject.dto.TicketDto;
+import org.example.ticketingproject.entity.TicketStatus;
+import org.example.ticketingproject.entity.User;
+import org.example.ticketingproject.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pins the number of SQL statements Hibernate issues for the main ticket and comment operations under
+ * the production Hibernate settings. Users are served from the cache, so every count is taken warm.
+ * A failing count usually means a lazy association started loading row by row; fix the query rather
+ * than the expected number.
+ */
+@SpringBootTest
+@ActiveProfiles("prod")
+// Own database: this context runs alongside the default test context and create-drop would drop its tables
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:ticketing_statements;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class StatementCountTests {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCacheService userCacheService;
+
+    private Long ownerId;
+
+    private Long agentId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = createUser("Statement Owner");
+        agentId = createUser("Statement Agent");
+        userCacheService.getUsers(List.of(ownerId, agentId));
+    }
+
+    @Test
+    void createTicketIsASingleInsert() {
+        createTicket();
+
+        assertEquals(1, statements(this::createTicket));
+    }
+
+    @Test
+    void getTicketByIdIsASingleSelect() {
+        Long ticketId = createTicketWithComments(3);
+        ticketService.getTicketById(ticketId);
+
+        assertEquals(1, statements(() -> ticketService.getTicketById(ticketId)));
+    }
+
+    @Test
+    void getTicketDetailDoesNotDependOnCommentCount() {
+        Long small = createTicketWithComments(2);
+        Long large = createTicketWithComments(30);
+        ticketService.getTicketDetail(small, null, 20);
+
+        // Ticket with its users, comment slice with its authors, and the comment count
+        assertEquals(3, statements(() -> ticketService.getTicketDetail(small, null, 20)));
+        assertEquals(3, statements(() -> ticketService.getTicketDetail(large, null, 20)));
+    }
+
+    @Test
+    void ticketPageIsOneSelectAndOneCount() {
+        for (int i = 0; i < 25; i++) {
+            createTicket();
+        }
+        ticketService.getAllTickets(FIRST_PAGE);
+
+        assertEquals(2, statements(() -> ticketService.getAllTickets(FIRST_PAGE)));
+    }
+
+    @Test
+    void statusChangeIsOneSelectAndOneUpdate() {
+        Long ticketId = createTicket().getId();
+
+        assertEquals(2, statements(() -> ticketService.changeTicketStatus(ticketId, TicketStatus.IN_PROGRESS, agentId)));
+    }
+
+    @Test
+    void assignmentIsOneSelectAndOneUpdate() {
+        Long ticketId = createTicket().getId();
+
+        assertEquals(2, statements(() -> ticketService.assignTicket(ticketId, agentId, ownerId)));
+    }
+
+    @Test
+    void deleteTicketBatchesItsCommentDeletes() {
+        Long small = createTicketWithComments(2);
+        Long large = createTicketWithComments(30);
+
+        // Ticket, comments and history are each loaded once; the comment deletes go out as one JDBC batch
+        int expected = statements(() -> ticketService.deleteTicket(small));
+        assertEquals(expected, statements(() -> ticketService.deleteTicket(large)));
+        assertEquals(5, expected);
+    }
+
+    @Test
+    void createCommentIsOneSelectAndOneInsert() {
+        Long ticketId = createTicket().getId();
+        createComment(ticketId);
+
+        assertEquals(2, statements(() -> createComment(ticketId)));
+    }
+
+    @Test
+    void commentPageDoesNotDependOnAuthorCount() {
+        Long ticketId = createTicket().getId();
+        for (int i = 0; i < 25; i++) {
+            createComment(ticketId, createUser("Commenter " + i));
+        }
+        commentService.getCommentsByTicketId(ticketId, FIRST_PAGE);
+
+        // Comment page with its authors, and the count
+        assertEquals(2, statements(() -> commentService.getCommentsByTicketId(ticketId, FIRST_PAGE)));
+    }
+
+    @Test
+    void commentKeysetSliceIsASingleSelect() {
+        Long ticketId = createTicketWithComments(30);
+        commentService.getCommentsByTicketIdAfter(ticketId, null, 20);
+
+        assertEquals(1, statements(() -> commentService.getCommentsByTicketIdAfter(ticketId, null, 20)));
+    }
+
+    @Test
+    void updateCommentIsTwoSelectsAndOneUpdate() {
+        Long ticketId = createTicket().getId();
+        Long commentId = createComment(ticketId).getId();
+
+        // The comment, its ticket for the change event, and the update
+        assertEquals(3, statements(() -> commentService.updateComment(commentId, "Edited comment body", ownerId, null)));
+    }
+
+    private static int statements(Runnable action) {
+        SqlStatementCounter.start();
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            SqlStatementCounter.stop();
+            throw e;
+        }
+        return SqlStatementCounter.stop();
+    }
+
+    private Long createUser(String fullName) {
+        User user = new User();
+        user.setFullName(fullName);
+        user.setEmail(UUID.randomUUID() + "@statements.test");
+        user.setPasswordHash("{noop}unused");
+        return userRepository.save(user).getId();
+    }
+
+    private TicketDto createTicket() {
+        CreateTicketDto dto = new CreateTicketDto();
+        dto.setSubject("Statement count ticket");
+        dto.setDescription("Ticket created by the statement count tests");
+        dto.setPriority("HIGH");
+        return ticketService.createTicket(dto, ownerId);
+    }
+
+    private Long createTicketWithComments(int comments) {
+        Long ticketId = createTicket().getId();
+        for (int i = 0; i < comments; i++) {
+            createComment(ticketId);
+        }
+        return ticketId;
+    }
+
+    private CommentDto createComment(Long ticketId) {
+        return createComment(ticketId, ownerId);
+    }
+
+    private CommentDto createComment(Long ticketId, Long authorId) {
+        CreateCommentDto dto = new CreateCommentDto();
+        dto.setTicketId(ticketId);
+        dto.setBody("Statement count comment");
+        return commentService.createComment(dto, authorId);
+    }
+}
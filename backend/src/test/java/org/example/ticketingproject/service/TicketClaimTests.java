@@ -0,0 +1,200 @@
+package org.example.ticketingproject.service;
+
+import org.example.ticketingproject.dto.CreateTicketDto;
+import org.example.ticketingproject.dto.TicketDto;
+import org.example.ticketingproject.entity.Ticket;
+import org.example.ticketingproject.entity.TicketStatus;
+import org.example.ticketingproject.entity.User;
+import org.example.ticketingproject.repository.TicketRepository;
+import org.example.ticketingproject.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.reset;
+
+/**
+ * Claims against the agent work queue. The queue is per context, so this class has its own
+ * database and the scheduled refresh is pushed out of the way; every test drains what the
+ * previous one left behind first.
+ */
+@SpringBootTest(properties = "ticketing.queue.refresh-interval-ms=3600000")
+// Own database: other test classes leave open, unassigned tickets that would end up in the queue
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:ticketing_claims;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class TicketClaimTests {
+    
+    @Autowired
+    private TicketService ticketService;
+    
+    @Autowired
+    private AgentWorkQueue agentWorkQueue;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @MockitoSpyBean
+    private TicketRepository ticketRepository;
+    
+    private Long ownerId;
+    
+    @BeforeEach
+    void setUp() {
+        ownerId = createUser("Claim Owner");
+        jdbcTemplate.update("UPDATE tickets SET status = 'CLOSED' WHERE status = 'OPEN'");
+        agentWorkQueue.rebuild();
+    }
+    
+    @Test
+    void concurrentClaimsNeverShareATicket() throws Exception {
+        Set<Long> created = new HashSet<>();
+        for (int i = 0; i < 40; i++) {
+            created.add(createTicket(i % 2 == 0 ? "HIGH" : "LOW").getId());
+        }
+        List<Long> agents = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            agents.add(createUser("Claim Agent " + i));
+        }
+        
+        ExecutorService threads = Executors.newFixedThreadPool(agents.size());
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentHashMap<Long, Long> claimedBy = new ConcurrentHashMap<>();
+        List<Future<Integer>> duplicates = new ArrayList<>();
+        try {
+            for (Long agentId : agents) {
+                duplicates.add(threads.submit(() -> {
+                    start.await();
+                    int seenTwice = 0;
+                    for (TicketDto ticket = ticketService.claimNextTicket(agentId); ticket != null;
+                         ticket = ticketService.claimNextTicket(agentId)) {
+                        if (claimedBy.putIfAbsent(ticket.getId(), agentId) != null) {
+                            seenTwice++;
+                        }
+                    }
+                    return seenTwice;
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : duplicates) {
+                assertEquals(0, result.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+        
+        assertEquals(created, claimedBy.keySet());
+        claimedBy.forEach((ticketId, agentId) -> {
+            Ticket ticket = ticketRepository.findById(ticketId).orElseThrow();
+            assertEquals(TicketStatus.IN_PROGRESS, ticket.getStatus());
+            assertEquals(agentId, ticket.getAssignee().getId());
+        });
+    }
+    
+    @Test
+    void rolledBackClaimPutsTheTicketBack() {
+        Long ticketId = createTicket("MEDIUM").getId();
+        Long firstAgent = createUser("First Agent");
+        Long secondAgent = createUser("Second Agent");
+        
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertEquals(ticketId, ticketService.claimNextTicket(firstAgent).getId());
+            status.setRollbackOnly();
+        });
+        
+        TicketDto claimed = ticketService.claimNextTicket(secondAgent);
+        assertNotNull(claimed);
+        assertEquals(ticketId, claimed.getId());
+        assertEquals(secondAgent, ticketRepository.findById(ticketId).orElseThrow().getAssignee().getId());
+    }
+    
+    @Test
+    void lockedTicketIsSkippedAndQueuedAgain() {
+        Long ticketId = createTicket("URGENT").getId();
+        Long agentId = createUser("Skipping Agent");
+        // As if another transaction held the row: SKIP LOCKED returns nothing the first time
+        doReturn(Optional.empty()).when(ticketRepository).findClaimable(ticketId, TicketStatus.OPEN);
+        
+        assertNull(ticketService.claimNextTicket(agentId));
+        
+        reset(ticketRepository);
+        TicketDto claimed = ticketService.claimNextTicket(agentId);
+        assertNotNull(claimed);
+        assertEquals(ticketId, claimed.getId());
+    }
+    
+    @Test
+    void ticketAssignedElsewhereIsDroppedFromTheQueue() {
+        Long assignedElsewhere = createTicket("URGENT").getId();
+        Long waiting = createTicket("LOW").getId();
+        jdbcTemplate.update("UPDATE tickets SET assignee_id = ? WHERE id = ?", ownerId, assignedElsewhere);
+        
+        TicketDto claimed = ticketService.claimNextTicket(createUser("Probing Agent"));
+        
+        assertEquals(waiting, claimed.getId());
+        assertNull(ticketService.claimNextTicket(createUser("Late Agent")));
+    }
+    
+    @Test
+    void oldLowTicketIsClaimedBeforeAFreshHighOne() {
+        Long freshHigh = createTicket("HIGH").getId();
+        Long oldLow = createTicket("LOW").getId();
+        Long freshLow = createTicket("LOW").getId();
+        // Past its three-day LOW SLA, while the HIGH ticket still has four hours
+        jdbcTemplate.update("UPDATE tickets SET created_at = ? WHERE id = ?",
+            Timestamp.from(Instant.now().minus(Duration.ofDays(4))), oldLow);
+        agentWorkQueue.rebuild();
+        Long agentId = createUser("SLA Agent");
+        
+        assertEquals(oldLow, ticketService.claimNextTicket(agentId).getId());
+        assertEquals(freshHigh, ticketService.claimNextTicket(agentId).getId());
+        assertEquals(freshLow, ticketService.claimNextTicket(agentId).getId());
+        assertNull(ticketService.claimNextTicket(agentId));
+    }
+    
+    private Long createUser(String fullName) {
+        User user = new User();
+        user.setFullName(fullName);
+        user.setEmail(UUID.randomUUID() + "@claims.test");
+        user.setPasswordHash("{noop}unused");
+        return userRepository.save(user).getId();
+    }
+    
+    private TicketDto createTicket(String priority) {
+        CreateTicketDto dto = new CreateTicketDto();
+        dto.setSubject("Claim ticket");
+        dto.setDescription("Ticket created by the claim tests");
+        dto.setPriority(priority);
+        return ticketService.createTicket(dto, ownerId);
+    }
+}
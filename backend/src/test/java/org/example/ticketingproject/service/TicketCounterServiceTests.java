@@ -0,0 +1,161 @@
+package org.example.ticketingproject.service;
+
+import org.example.ticketingproject.dto.CreateTicketDto;
+import org.example.ticketingproject.dto.TicketStatsDto;
+import org.example.ticketingproject.entity.User;
+import org.example.ticketingproject.repository.TicketRepository;
+import org.example.ticketingproject.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Interleaves ticket commits with reconciles and checks the in-memory counters against GROUP BY
+ * counts taken afterwards.
+ */
+@SpringBootTest
+class TicketCounterServiceTests {
+    
+    @Autowired
+    private TicketCounterService ticketCounterService;
+    
+    @Autowired
+    private TicketService ticketService;
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private final ExecutorService threads = Executors.newFixedThreadPool(5);
+    
+    private Long ownerId;
+    
+    @BeforeEach
+    void setUp() {
+        User owner = new User();
+        owner.setFullName("Counter Owner");
+        owner.setEmail(UUID.randomUUID() + "@counters.test");
+        owner.setPasswordHash("{noop}unused");
+        ownerId = userRepository.save(owner).getId();
+        ticketCounterService.reconcile();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        threads.shutdownNow();
+    }
+    
+    @Test
+    void commitWhoseDeltasArriveDuringReconcileIsCountedOnce() throws Exception {
+        long before = ticketCounterService.getStats().getTotal();
+        CountDownLatch committed = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        
+        // The ticket is in the database before the reconcile starts, but its deltas are held back
+        Future<?> writer = threads.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    committed.countDown();
+                    await(proceed);
+                }
+            });
+            createTicket();
+        }));
+        assertTrue(committed.await(10, TimeUnit.SECONDS));
+        Future<?> reconcile = threads.submit(ticketCounterService::reconcile);
+        Thread.sleep(200);
+        proceed.countDown();
+        writer.get(10, TimeUnit.SECONDS);
+        reconcile.get(10, TimeUnit.SECONDS);
+        
+        assertEquals(before + 1, ticketCounterService.getStats().getTotal());
+        assertCountersMatchDatabase();
+    }
+    
+    @Test
+    void countersStayExactWhileReconcilingUnderLoad() throws Exception {
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Future<?> reconciles = threads.submit(() -> {
+            while (writing.get()) {
+                ticketCounterService.reconcile();
+            }
+        });
+        List<Future<?>> writers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            writers.add(threads.submit(() -> {
+                for (int j = 0; j < 25; j++) {
+                    createTicket();
+                }
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get(60, TimeUnit.SECONDS);
+        }
+        writing.set(false);
+        reconciles.get(60, TimeUnit.SECONDS);
+        
+        assertCountersMatchDatabase();
+    }
+    
+    private void assertCountersMatchDatabase() {
+        TicketStatsDto stats = ticketCounterService.getStats();
+        assertEquals(ticketRepository.count(), stats.getTotal());
+        assertEquals(grouped(ticketRepository.countGroupedByStatus()), nonZero(stats.getByStatus()));
+        assertEquals(grouped(ticketRepository.countGroupedByPriority()), nonZero(stats.getByPriority()));
+    }
+    
+    private static Map<String, Long> grouped(List<TicketRepository.GroupCount> counts) {
+        Map<String, Long> result = new HashMap<>();
+        counts.forEach(count -> result.put(((Enum<?>) count.getGroupKey()).name(), count.getTotal()));
+        return result;
+    }
+    
+    private static Map<String, Long> nonZero(Map<String, Long> counts) {
+        Map<String, Long> result = new HashMap<>(counts);
+        result.values().removeIf(value -> value == 0);
+        return result;
+    }
+    
+    private void createTicket() {
+        CreateTicketDto dto = new CreateTicketDto();
+        dto.setSubject("Counter ticket");
+        dto.setDescription("Ticket created by the counter tests");
+        dto.setPriority("LOW");
+        ticketService.createTicket(dto, ownerId);
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
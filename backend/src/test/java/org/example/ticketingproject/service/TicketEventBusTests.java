@@ -0,0 +1,142 @@
+package org.example.ticketingproject.service;
+
+import org.example.ticketingproject.entity.TicketPriority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the bus without a servlet container: emitters are stubbed so a client can be made to stall
+ * inside a send, the way a write to a half-open socket does.
+ */
+class TicketEventBusTests {
+    
+    private static final int SENDER_THREADS = 4;
+    
+    private final TicketEventBus bus = new TicketEventBus();
+    
+    private final CountDownLatch release = new CountDownLatch(1);
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bus, "bufferSize", 16);
+        ReflectionTestUtils.setField(bus, "replaySize", 100);
+        ReflectionTestUtils.setField(bus, "timeoutMillis", 60_000L);
+        ReflectionTestUtils.setField(bus, "sendTimeoutMillis", 200L);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        bus.shutdown();
+    }
+    
+    @Test
+    void stalledSubscribersDoNotHoldUpTheOthers() throws Exception {
+        CountDownLatch stalled = new CountDownLatch(SENDER_THREADS);
+        for (int i = 0; i < SENDER_THREADS; i++) {
+            bus.subscribe(new StalledEmitter(stalled, release), null, null, null);
+        }
+        List<RecordingEmitter> healthy = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            RecordingEmitter emitter = new RecordingEmitter();
+            healthy.add(emitter);
+            bus.subscribe(emitter, null, null, null);
+        }
+        
+        publish(1L);
+        assertTrue(stalled.await(5, TimeUnit.SECONDS), "every sender thread should be stuck in a stalled client");
+        
+        Thread.sleep(300);
+        bus.dropStalledSubscribers();
+        publish(2L);
+        
+        for (RecordingEmitter emitter : healthy) {
+            assertNotNull(emitter.sent.poll(5, TimeUnit.SECONDS));
+            assertNotNull(emitter.sent.poll(5, TimeUnit.SECONDS));
+        }
+        assertEquals(healthy.size(), bus.getSubscriberCount());
+    }
+    
+    @Test
+    void senderPoolShrinksBackOnceStalledSendsReturn() throws Exception {
+        CountDownLatch stalled = new CountDownLatch(2);
+        bus.subscribe(new StalledEmitter(stalled, release), null, null, null);
+        bus.subscribe(new StalledEmitter(stalled, release), null, null, null);
+        publish(1L);
+        assertTrue(stalled.await(5, TimeUnit.SECONDS));
+        
+        Thread.sleep(300);
+        bus.dropStalledSubscribers();
+        ThreadPoolExecutor senders = (ThreadPoolExecutor) ReflectionTestUtils.getField(bus, "senders");
+        assertEquals(SENDER_THREADS + 2, senders.getCorePoolSize());
+        assertEquals(0, bus.getSubscriberCount());
+        
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (senders.getCorePoolSize() > SENDER_THREADS && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(SENDER_THREADS, senders.getCorePoolSize());
+    }
+    
+    @Test
+    void slowButFinishingSendIsNotDropped() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        bus.subscribe(emitter, null, null, null);
+        publish(1L);
+        
+        bus.dropStalledSubscribers();
+        
+        assertEquals(1, bus.getSubscriberCount());
+    }
+    
+    private void publish(Long ticketId) {
+        bus.publishTicketCreated(ticketId, "T-" + ticketId, TicketPriority.MEDIUM, null);
+    }
+    
+    private static final class StalledEmitter extends SseEmitter {
+        
+        private final CountDownLatch stalled;
+        private final CountDownLatch release;
+        
+        StalledEmitter(CountDownLatch stalled, CountDownLatch release) {
+            this.stalled = stalled;
+            this.release = release;
+        }
+        
+        @Override
+        public void send(SseEventBuilder builder) {
+            stalled.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    private static final class RecordingEmitter extends SseEmitter {
+        
+        private final BlockingQueue<SseEventBuilder> sent = new LinkedBlockingQueue<>();
+        
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent.add(builder);
+        }
+    }
+}
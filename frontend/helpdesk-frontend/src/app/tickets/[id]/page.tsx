@@ -6,7 +6,8 @@ import Layout from '@/components/Layout';
 import Card from '@/components/ui/Card';
 import Button from '@/components/ui/Button';
 import Badge from '@/components/ui/Badge';
-import { api, Ticket, Comment, User } from '@/lib/api';
+import UserPicker from '@/components/UserPicker';
+import { api, Ticket, Comment } from '@/lib/api';
 
 export default function TicketDetailPage() {
   const params = useParams();
@@ -15,7 +16,9 @@ export default function TicketDetailPage() {
   
   const [ticket, setTicket] = useState<Ticket | null>(null);
   const [comments, setComments] = useState<Comment[]>([]);
-  const [users, setUsers] = useState<User[]>([]);
+  const [commentCount, setCommentCount] = useState(0);
+  const [nextCommentCursor, setNextCommentCursor] = useState<string | null>(null);
+  const [loadingOlder, setLoadingOlder] = useState(false);
   const [loading, setLoading] = useState(true);
   const [commentText, setCommentText] = useState('');
   const [submittingComment, setSubmittingComment] = useState(false);
@@ -24,18 +27,19 @@ export default function TicketDetailPage() {
   useEffect(() => {
     if (ticketId) {
       fetchTicketData();
-      fetchUsers();
     }
   }, [ticketId]);
 
-  const fetchTicketData = async () => {
+  // Refreshes after an action keep the older comments already loaded
+  const fetchTicketData = async (resetComments = true) => {
     try {
-      const [ticketData, commentsData] = await Promise.all([
-        api.tickets.getById(ticketId),
-        api.comments.getByTicketId(ticketId),
-      ]);
-      setTicket(ticketData);
-      setComments(commentsData);
+      const detail = await api.tickets.getFull(ticketId);
+      setTicket(detail.ticket);
+      setCommentCount(detail.commentCount);
+      if (resetComments) {
+        setComments(detail.ticket.comments);
+        setNextCommentCursor(detail.nextCommentCursor);
+      }
     } catch (error) {
       console.error('Error fetching ticket data:', error);
     } finally {
@@ -43,12 +47,18 @@ export default function TicketDetailPage() {
     }
   };
 
-  const fetchUsers = async () => {
+  const handleLoadOlderComments = async () => {
+    if (!nextCommentCursor) return;
+    setLoadingOlder(true);
     try {
-      const activeUsers = await api.users.getActive();
-      setUsers(activeUsers);
+      const older = await api.comments.getOlder(ticketId, nextCommentCursor);
+      setComments(prev => [...prev, ...older.content.filter(c => !prev.some(p => p.id === c.id))]);
+      setNextCommentCursor(older.nextCursor);
     } catch (error) {
-      console.error('Error fetching users:', error);
+      console.error('Error loading older comments:', error);
+      alert('Failed to load older comments. Please try again.');
+    } finally {
+      setLoadingOlder(false);
     }
   };
 
@@ -64,6 +74,7 @@ export default function TicketDetailPage() {
       );
       
       setComments(prev => [newComment, ...prev]);
+      setCommentCount(prev => prev + 1);
       setCommentText('');
     } catch (error) {
       console.error('Error adding comment:', error);
@@ -77,7 +88,7 @@ export default function TicketDetailPage() {
     setAssigningTicket(true);
     try {
       await api.tickets.assign(ticketId, assigneeId);
-      await fetchTicketData(); // Refresh ticket data
+      await fetchTicketData(false); // Refresh ticket data
     } catch (error) {
       console.error('Error assigning ticket:', error);
       alert('Failed to assign ticket. Please try again.');
@@ -89,7 +100,7 @@ export default function TicketDetailPage() {
   const handleStatusChange = async (newStatus: string) => {
     try {
       await api.tickets.changeStatus(ticketId, newStatus);
-      await fetchTicketData(); // Refresh ticket data
+      await fetchTicketData(false); // Refresh ticket data
     } catch (error) {
       console.error('Error changing ticket status:', error);
       alert('Failed to change ticket status. Please try again.');
@@ -101,6 +112,7 @@ export default function TicketDetailPage() {
       try {
         await api.comments.delete(commentId, 1); // Assuming current user ID is 1
         setComments(prev => prev.filter(c => c.id !== commentId));
+        setCommentCount(prev => prev - 1);
       } catch (error) {
         console.error('Error deleting comment:', error);
         alert('Failed to delete comment. Please try again.');
@@ -201,7 +213,7 @@ export default function TicketDetailPage() {
 
             {/* Comments */}
             <Card>
-              <h2 className="text-xl font-semibold text-gray-900 mb-4">Comments</h2>
+              <h2 className="text-xl font-semibold text-gray-900 mb-4">Comments ({commentCount})</h2>
               
               {/* Add Comment Form */}
               <form onSubmit={handleAddComment} className="mb-6">
@@ -255,6 +267,20 @@ export default function TicketDetailPage() {
                   ))
                 )}
               </div>
+
+              {nextCommentCursor && (
+                <div className="mt-4 text-center">
+                  <Button
+                    variant="outline"
+                    size="sm"
+                    onClick={handleLoadOlderComments}
+                    loading={loadingOlder}
+                    disabled={loadingOlder}
+                  >
+                    Load older comments
+                  </Button>
+                </div>
+              )}
             </Card>
           </div>
 
@@ -279,19 +305,13 @@ export default function TicketDetailPage() {
 
                 <div>
                   <label className="block text-sm font-medium text-gray-700 mb-2">Assign To</label>
-                  <select
-                    value={ticket.assignee?.id || ''}
-                    onChange={(e) => handleAssignTicket(parseInt(e.target.value))}
+                  <UserPicker
+                    value={ticket.assignee || null}
+                    onChange={(user) => user && handleAssignTicket(user.id)}
+                    placeholder="Search for an agent"
+                    clearable={false}
                     disabled={assigningTicket}
-                    className="w-full border border-gray-300 rounded-md px-3 py-2 focus:outline-none focus:ring-2 focus:ring-blue-500"
-                  >
-                    <option value="">Unassigned</option>
-                    {users.map((user) => (
-                      <option key={user.id} value={user.id}>
-                        {user.fullName}
-                      </option>
-                    ))}
-                  </select>
+                  />
                 </div>
               </div>
             </Card>
@@ -1,43 +1,27 @@
 'use client';
 
-import React, { useState, useEffect } from 'react';
+import React, { useState } from 'react';
 import { useRouter } from 'next/navigation';
 import Layout from '@/components/Layout';
 import Card from '@/components/ui/Card';
 import Button from '@/components/ui/Button';
+import UserPicker from '@/components/UserPicker';
 import { api, User } from '@/lib/api';
 
 export default function CreateTicketPage() {
   const router = useRouter();
   const [loading, setLoading] = useState(false);
-  const [users, setUsers] = useState<User[]>([]);
+  const [owner, setOwner] = useState<User | null>(null);
   const [formData, setFormData] = useState({
     subject: '',
     description: '',
     priority: 'MEDIUM',
-    ownerId: '',
   });
 
-  useEffect(() => {
-    fetchUsers();
-  }, []);
-
-  const fetchUsers = async () => {
-    try {
-      const activeUsers = await api.users.getActive();
-      setUsers(activeUsers);
-      if (activeUsers.length > 0) {
-        setFormData(prev => ({ ...prev, ownerId: activeUsers[0].id.toString() }));
-      }
-    } catch (error) {
-      console.error('Error fetching users:', error);
-    }
-  };
-
   const handleSubmit = async (e: React.FormEvent) => {
     e.preventDefault();
     
-    if (!formData.subject.trim() || !formData.description.trim() || !formData.ownerId) {
+    if (!formData.subject.trim() || !formData.description.trim() || !owner) {
       alert('Please fill in all required fields');
       return;
     }
@@ -50,7 +34,7 @@ export default function CreateTicketPage() {
           description: formData.description,
           priority: formData.priority,
         },
-        parseInt(formData.ownerId)
+        owner.id
       );
       
       router.push('/tickets');
@@ -131,21 +115,11 @@ export default function CreateTicketPage() {
                 <label htmlFor="ownerId" className="block text-sm font-medium text-gray-700 mb-2">
                   Owner *
                 </label>
-                <select
+                <UserPicker
                   id="ownerId"
-                  name="ownerId"
-                  value={formData.ownerId}
-                  onChange={handleInputChange}
-                  className="w-full border border-gray-300 rounded-md px-3 py-2 focus:outline-none focus:ring-2 focus:ring-blue-500"
-                  required
-                >
-                  <option value="">Select an owner</option>
-                  {users.map((user) => (
-                    <option key={user.id} value={user.id}>
-                      {user.fullName} ({user.email})
-                    </option>
-                  ))}
-                </select>
+                  value={owner}
+                  onChange={setOwner}
+                />
               </div>
             </div>
 
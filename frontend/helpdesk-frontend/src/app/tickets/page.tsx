@@ -26,6 +26,26 @@ export default function TicketsPage() {
     fetchTickets();
   }, [currentPage, filters]);
 
+  // Refetch when the server pushes a change instead of polling; bursts collapse into one refetch
+  useEffect(() => {
+    let timer: ReturnType<typeof setTimeout> | undefined;
+    const refresh = () => {
+      clearTimeout(timer);
+      timer = setTimeout(fetchTickets, 500);
+    };
+    const unsubscribe = api.tickets.subscribe(
+      event => {
+        if (event.type.startsWith('TICKET_')) refresh();
+      },
+      refresh,
+      { status: filters.status || undefined },
+    );
+    return () => {
+      clearTimeout(timer);
+      unsubscribe();
+    };
+  }, [currentPage, filters]);
+
   const fetchTickets = async () => {
     try {
       setLoading(true);
@@ -10,15 +10,20 @@ import { api, User } from '@/lib/api';
 export default function UsersPage() {
   const [users, setUsers] = useState<User[]>([]);
   const [loading, setLoading] = useState(true);
+  const [page, setPage] = useState(0);
+  const [totalPages, setTotalPages] = useState(0);
+  const [totalElements, setTotalElements] = useState(0);
 
   useEffect(() => {
     fetchUsers();
-  }, []);
+  }, [page]);
 
   const fetchUsers = async () => {
     try {
-      const allUsers = await api.users.getAll();
-      setUsers(allUsers);
+      const allUsers = await api.users.getAll(page);
+      setUsers(allUsers.content);
+      setTotalPages(allUsers.totalPages);
+      setTotalElements(allUsers.totalElements);
     } catch (error) {
       console.error('Error fetching users:', error);
     } finally {
@@ -140,6 +145,32 @@ export default function UsersPage() {
               <p className="text-gray-500">No users found</p>
             </div>
           )}
+
+          {totalPages > 1 && (
+            <div className="flex items-center justify-between pt-4 border-t border-gray-200">
+              <p className="text-sm text-gray-600">
+                Page {page + 1} of {totalPages} ({totalElements} users)
+              </p>
+              <div className="space-x-2">
+                <Button
+                  variant="outline"
+                  size="sm"
+                  onClick={() => setPage(page - 1)}
+                  disabled={page === 0}
+                >
+                  Previous
+                </Button>
+                <Button
+                  variant="outline"
+                  size="sm"
+                  onClick={() => setPage(page + 1)}
+                  disabled={page + 1 >= totalPages}
+                >
+                  Next
+                </Button>
+              </div>
+            </div>
+          )}
         </Card>
       </div>
     </Layout>
@@ -0,0 +1,103 @@
+import React, { useEffect, useState } from 'react';
+import { api, User } from '@/lib/api';
+
+interface UserPickerProps {
+  id?: string;
+  value: User | null;
+  onChange: (user: User | null) => void;
+  placeholder?: string;
+  disabled?: boolean;
+  clearable?: boolean;
+}
+
+// Typeahead over the active users; the directory is too large to load into a dropdown
+const UserPicker: React.FC<UserPickerProps> = ({
+  id,
+  value,
+  onChange,
+  placeholder = 'Search by name or email',
+  disabled = false,
+  clearable = true,
+}) => {
+  const [query, setQuery] = useState('');
+  const [results, setResults] = useState<User[]>([]);
+  const [open, setOpen] = useState(false);
+
+  useEffect(() => {
+    const term = query.trim();
+    if (!term) {
+      setResults([]);
+      return;
+    }
+    let cancelled = false;
+    const timer = setTimeout(async () => {
+      try {
+        const users = await api.users.search(term);
+        if (!cancelled) setResults(users);
+      } catch (error) {
+        console.error('Error searching users:', error);
+      }
+    }, 250);
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [query]);
+
+  const handleSelect = (user: User) => {
+    onChange(user);
+    setQuery('');
+    setResults([]);
+    setOpen(false);
+  };
+
+  return (
+    <div className="relative">
+      {value && (
+        <div className="flex items-center justify-between mb-2 text-sm text-gray-900">
+          <span>{value.fullName} ({value.email})</span>
+          {clearable && (
+            <button
+              type="button"
+              onClick={() => onChange(null)}
+              disabled={disabled}
+              className="text-gray-500 hover:text-gray-700"
+            >
+              Clear
+            </button>
+          )}
+        </div>
+      )}
+      <input
+        type="text"
+        id={id}
+        value={query}
+        onChange={(e) => {
+          setQuery(e.target.value);
+          setOpen(true);
+        }}
+        onFocus={() => setOpen(true)}
+        onBlur={() => setTimeout(() => setOpen(false), 150)}
+        disabled={disabled}
+        className="w-full border border-gray-300 rounded-md px-3 py-2 focus:outline-none focus:ring-2 focus:ring-blue-500"
+        placeholder={placeholder}
+        autoComplete="off"
+      />
+      {open && results.length > 0 && (
+        <ul className="absolute z-10 mt-1 w-full bg-white border border-gray-200 rounded-md shadow-sm max-h-60 overflow-y-auto">
+          {results.map((user) => (
+            <li
+              key={user.id}
+              onMouseDown={() => handleSelect(user)}
+              className="px-3 py-2 text-sm text-gray-900 cursor-pointer hover:bg-gray-50"
+            >
+              {user.fullName} <span className="text-gray-500">({user.email})</span>
+            </li>
+          ))}
+        </ul>
+      )}
+    </div>
+  );
+};
+
+export default UserPicker;
@@ -18,6 +18,7 @@ export interface Comment {
   ticketId: number;
   createdAt: string;
   updatedAt: string;
+  version: number;
 }
 
 export interface Ticket {
@@ -33,6 +34,34 @@ export interface Ticket {
   comments: Comment[];
   createdAt: string;
   updatedAt: string;
+  version: number;
+}
+
+export interface TicketDetail {
+  ticket: Ticket;
+  commentCount: number;
+  nextCommentCursor: string | null;
+}
+
+export interface CursorPage<T> {
+  content: T[];
+  size: number;
+  hasNext: boolean;
+  nextCursor: string | null;
+}
+
+export interface TicketEvent {
+  id: number;
+  type: 'TICKET_CREATED' | 'TICKET_UPDATED' | 'TICKET_DELETED' | 'COMMENT_CREATED' | 'COMMENT_UPDATED' | 'COMMENT_DELETED';
+  ticketId: number;
+  ticketCode: string;
+  status: string;
+  previousStatus: string | null;
+  priority: string;
+  assigneeId: number | null;
+  previousAssigneeId: number | null;
+  commentId: number | null;
+  at: string;
 }
 
 export interface CreateTicketData {
@@ -45,6 +74,7 @@ export interface UpdateTicketData {
   subject?: string;
   description?: string;
   priority?: string;
+  version?: number;
 }
 
 export interface CreateCommentData {
@@ -58,30 +88,56 @@ export interface CreateUserData {
   password: string;
 }
 
+// After a write the backend pins this client's reads to the primary database for a few seconds, so it
+// reads its own change rather than a lagging replica. Cookies are not sent cross-origin, so the
+// deadline it returns in X-Primary-Until is echoed back as a header until it passes.
+const PRIMARY_UNTIL_HEADER = 'X-Primary-Until';
+let primaryUntil: string | null = null;
+
+const apiFetch = async (url: string, init: RequestInit = {}): Promise<Response> => {
+  const headers = new Headers(init.headers);
+  if (primaryUntil && Number(primaryUntil) > Date.now()) {
+    headers.set(PRIMARY_UNTIL_HEADER, primaryUntil);
+  }
+  const response = await fetch(url, { ...init, headers });
+  const deadline = response.headers.get(PRIMARY_UNTIL_HEADER);
+  if (deadline) primaryUntil = deadline;
+  return response;
+};
+
 // API Functions
 export const api = {
   // Ticket endpoints
   tickets: {
     getAll: async (page = 0, size = 10, sortBy = 'createdAt', sortDir = 'desc'): Promise<{ content: Ticket[]; totalElements: number; totalPages: number }> => {
-      const response = await fetch(`${API_BASE_URL}/tickets?page=${page}&size=${size}&sortBy=${sortBy}&sortDir=${sortDir}`);
+      const response = await apiFetch(`${API_BASE_URL}/tickets?page=${page}&size=${size}&sortBy=${sortBy}&sortDir=${sortDir}`);
       if (!response.ok) throw new Error('Failed to fetch tickets');
       return response.json();
     },
 
     getById: async (id: number): Promise<Ticket> => {
-      const response = await fetch(`${API_BASE_URL}/tickets/${id}`);
+      const response = await apiFetch(`${API_BASE_URL}/tickets/${id}`);
+      if (!response.ok) throw new Error('Failed to fetch ticket');
+      return response.json();
+    },
+
+    // Ticket with its newest comments in one request; pass `nextCommentCursor` as `after` for older ones
+    getFull: async (id: number, after?: string, limit = 20): Promise<TicketDetail> => {
+      const params = new URLSearchParams({ limit: String(limit) });
+      if (after) params.append('after', after);
+      const response = await apiFetch(`${API_BASE_URL}/tickets/${id}/full?${params}`);
       if (!response.ok) throw new Error('Failed to fetch ticket');
       return response.json();
     },
 
     getByCode: async (code: string): Promise<Ticket> => {
-      const response = await fetch(`${API_BASE_URL}/tickets/code/${code}`);
+      const response = await apiFetch(`${API_BASE_URL}/tickets/code/${code}`);
       if (!response.ok) throw new Error('Failed to fetch ticket');
       return response.json();
     },
 
     create: async (data: CreateTicketData, ownerId: number): Promise<Ticket> => {
-      const response = await fetch(`${API_BASE_URL}/tickets?ownerId=${ownerId}`, {
+      const response = await apiFetch(`${API_BASE_URL}/tickets?ownerId=${ownerId}`, {
         method: 'POST',
         headers: { 'Content-Type': 'application/json' },
         body: JSON.stringify(data),
@@ -91,7 +147,7 @@ export const api = {
     },
 
     update: async (id: number, data: UpdateTicketData): Promise<Ticket> => {
-      const response = await fetch(`${API_BASE_URL}/tickets/${id}`, {
+      const response = await apiFetch(`${API_BASE_URL}/tickets/${id}`, {
         method: 'PUT',
         headers: { 'Content-Type': 'application/json' },
         body: JSON.stringify(data),
@@ -101,67 +157,90 @@ export const api = {
     },
 
     delete: async (id: number): Promise<void> => {
-      const response = await fetch(`${API_BASE_URL}/tickets/${id}`, { method: 'DELETE' });
+      const response = await apiFetch(`${API_BASE_URL}/tickets/${id}`, { method: 'DELETE' });
       if (!response.ok) throw new Error('Failed to delete ticket');
     },
 
     assign: async (id: number, assigneeId: number): Promise<void> => {
-      const response = await fetch(`${API_BASE_URL}/tickets/${id}/assign/${assigneeId}`, { method: 'PATCH' });
+      const response = await apiFetch(`${API_BASE_URL}/tickets/${id}/assign/${assigneeId}`, { method: 'PATCH' });
       if (!response.ok) throw new Error('Failed to assign ticket');
     },
 
     changeStatus: async (id: number, status: string): Promise<void> => {
-      const response = await fetch(`${API_BASE_URL}/tickets/${id}/status/${status}`, { method: 'PATCH' });
+      const response = await apiFetch(`${API_BASE_URL}/tickets/${id}/status/${status}`, { method: 'PATCH' });
       if (!response.ok) throw new Error('Failed to change ticket status');
     },
 
     getByStatus: async (status: string, page = 0, size = 10): Promise<{ content: Ticket[]; totalElements: number; totalPages: number }> => {
-      const response = await fetch(`${API_BASE_URL}/tickets/status/${status}?page=${page}&size=${size}`);
+      const response = await apiFetch(`${API_BASE_URL}/tickets/status/${status}?page=${page}&size=${size}`);
       if (!response.ok) throw new Error('Failed to fetch tickets by status');
       return response.json();
     },
 
     getByPriority: async (priority: string, page = 0, size = 10): Promise<{ content: Ticket[]; totalElements: number; totalPages: number }> => {
-      const response = await fetch(`${API_BASE_URL}/tickets/priority/${priority}?page=${page}&size=${size}`);
+      const response = await apiFetch(`${API_BASE_URL}/tickets/priority/${priority}?page=${page}&size=${size}`);
       if (!response.ok) throw new Error('Failed to fetch tickets by priority');
       return response.json();
     },
 
     search: async (searchTerm: string, page = 0, size = 10): Promise<{ content: Ticket[]; totalElements: number; totalPages: number }> => {
-      const response = await fetch(`${API_BASE_URL}/tickets/search?searchTerm=${encodeURIComponent(searchTerm)}&page=${page}&size=${size}`);
+      const response = await apiFetch(`${API_BASE_URL}/tickets/search?searchTerm=${encodeURIComponent(searchTerm)}&page=${page}&size=${size}`);
       if (!response.ok) throw new Error('Failed to search tickets');
       return response.json();
     },
+
+    // Server-Sent Events feed; `onResync` fires when events were dropped and the view should be refetched.
+    // Returns a function that closes the stream.
+    subscribe: (
+      onEvent: (event: TicketEvent) => void,
+      onResync: () => void,
+      filters: { assigneeId?: number; status?: string } = {},
+    ): (() => void) => {
+      const params = new URLSearchParams();
+      if (filters.assigneeId) params.append('assigneeId', String(filters.assigneeId));
+      if (filters.status) params.append('status', filters.status);
+      const source = new EventSource(`${API_BASE_URL}/tickets/events?${params}`);
+      const types: TicketEvent['type'][] = ['TICKET_CREATED', 'TICKET_UPDATED', 'TICKET_DELETED', 'COMMENT_CREATED', 'COMMENT_UPDATED', 'COMMENT_DELETED'];
+      types.forEach(type => source.addEventListener(type, e => onEvent(JSON.parse((e as MessageEvent).data))));
+      source.addEventListener('resync', () => onResync());
+      return () => source.close();
+    },
   },
 
   // User endpoints
   users: {
-    getAll: async (): Promise<User[]> => {
-      const response = await fetch(`${API_BASE_URL}/users`);
+    getAll: async (page = 0, size = 20): Promise<{ content: User[]; totalElements: number; totalPages: number }> => {
+      const response = await apiFetch(`${API_BASE_URL}/users/page?page=${page}&size=${size}`);
       if (!response.ok) throw new Error('Failed to fetch users');
       return response.json();
     },
 
     getById: async (id: number): Promise<User> => {
-      const response = await fetch(`${API_BASE_URL}/users/${id}`);
+      const response = await apiFetch(`${API_BASE_URL}/users/${id}`);
       if (!response.ok) throw new Error('Failed to fetch user');
       return response.json();
     },
 
     getByEmail: async (email: string): Promise<User> => {
-      const response = await fetch(`${API_BASE_URL}/users/email/${email}`);
+      const response = await apiFetch(`${API_BASE_URL}/users/email/${email}`);
       if (!response.ok) throw new Error('Failed to fetch user');
       return response.json();
     },
 
-    getActive: async (): Promise<User[]> => {
-      const response = await fetch(`${API_BASE_URL}/users/active`);
+    getActive: async (page = 0, size = 20): Promise<{ content: User[]; totalElements: number; totalPages: number }> => {
+      const response = await apiFetch(`${API_BASE_URL}/users/active/page?page=${page}&size=${size}`);
       if (!response.ok) throw new Error('Failed to fetch active users');
       return response.json();
     },
 
+    search: async (query: string, limit = 10): Promise<User[]> => {
+      const response = await apiFetch(`${API_BASE_URL}/users/search?q=${encodeURIComponent(query)}&limit=${limit}`);
+      if (!response.ok) throw new Error('Failed to search users');
+      return response.json();
+    },
+
     create: async (data: CreateUserData): Promise<User> => {
-      const response = await fetch(`${API_BASE_URL}/users`, {
+      const response = await apiFetch(`${API_BASE_URL}/users`, {
         method: 'POST',
         headers: { 'Content-Type': 'application/json' },
         body: JSON.stringify(data),
@@ -171,7 +250,7 @@ export const api = {
     },
 
     update: async (id: number, data: CreateUserData): Promise<User> => {
-      const response = await fetch(`${API_BASE_URL}/users/${id}`, {
+      const response = await apiFetch(`${API_BASE_URL}/users/${id}`, {
         method: 'PUT',
         headers: { 'Content-Type': 'application/json' },
         body: JSON.stringify(data),
@@ -181,26 +260,34 @@ export const api = {
     },
 
     delete: async (id: number): Promise<void> => {
-      const response = await fetch(`${API_BASE_URL}/users/${id}`, { method: 'DELETE' });
+      const response = await apiFetch(`${API_BASE_URL}/users/${id}`, { method: 'DELETE' });
       if (!response.ok) throw new Error('Failed to delete user');
     },
 
     deactivate: async (id: number): Promise<void> => {
-      const response = await fetch(`${API_BASE_URL}/users/${id}/deactivate`, { method: 'PATCH' });
+      const response = await apiFetch(`${API_BASE_URL}/users/${id}/deactivate`, { method: 'PATCH' });
       if (!response.ok) throw new Error('Failed to deactivate user');
     },
   },
 
   // Comment endpoints
   comments: {
-    getByTicketId: async (ticketId: number): Promise<Comment[]> => {
-      const response = await fetch(`${API_BASE_URL}/comments/ticket/${ticketId}`);
+    getByTicketId: async (ticketId: number, page = 0, size = 20): Promise<{ content: Comment[]; totalElements: number; totalPages: number }> => {
+      const response = await apiFetch(`${API_BASE_URL}/comments/ticket/${ticketId}/page?page=${page}&size=${size}`);
+      if (!response.ok) throw new Error('Failed to fetch comments');
+      return response.json();
+    },
+
+    // Older comments after a `nextCommentCursor` / `nextCursor`, newest first
+    getOlder: async (ticketId: number, after: string, limit = 20): Promise<CursorPage<Comment>> => {
+      const params = new URLSearchParams({ after, limit: String(limit) });
+      const response = await apiFetch(`${API_BASE_URL}/comments/ticket/${ticketId}/stream?${params}`);
       if (!response.ok) throw new Error('Failed to fetch comments');
       return response.json();
     },
 
     create: async (data: CreateCommentData, authorId: number): Promise<Comment> => {
-      const response = await fetch(`${API_BASE_URL}/comments?authorId=${authorId}`, {
+      const response = await apiFetch(`${API_BASE_URL}/comments?authorId=${authorId}`, {
         method: 'POST',
         headers: { 'Content-Type': 'application/json' },
         body: JSON.stringify(data),
@@ -210,7 +297,7 @@ export const api = {
     },
 
     update: async (id: number, body: string, authorId: number): Promise<Comment> => {
-      const response = await fetch(`${API_BASE_URL}/comments/${id}?body=${encodeURIComponent(body)}&authorId=${authorId}`, {
+      const response = await apiFetch(`${API_BASE_URL}/comments/${id}?body=${encodeURIComponent(body)}&authorId=${authorId}`, {
         method: 'PUT',
       });
       if (!response.ok) throw new Error('Failed to update comment');
@@ -218,12 +305,12 @@ export const api = {
     },
 
     delete: async (id: number, authorId: number): Promise<void> => {
-      const response = await fetch(`${API_BASE_URL}/comments/${id}?authorId=${authorId}`, { method: 'DELETE' });
+      const response = await apiFetch(`${API_BASE_URL}/comments/${id}?authorId=${authorId}`, { method: 'DELETE' });
       if (!response.ok) throw new Error('Failed to delete comment');
     },
 
     getCount: async (ticketId: number): Promise<number> => {
-      const response = await fetch(`${API_BASE_URL}/comments/ticket/${ticketId}/count`);
+      const response = await apiFetch(`${API_BASE_URL}/comments/ticket/${ticketId}/count`);
       if (!response.ok) throw new Error('Failed to fetch comment count');
       return response.json();
     },